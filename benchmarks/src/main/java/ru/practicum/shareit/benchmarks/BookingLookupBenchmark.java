@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static ru.practicum.shareit.benchmarks.Datasets.HOT_ITEMS;
+import static ru.practicum.shareit.benchmarks.Datasets.POWER_OWNER_ID;
+
+/**
+ * Последняя и ближайшая брони вещей на сервере со встроенной H2, заполненной {@code rows} бронями
+ * ({@link Datasets}). Страница — вещи с id от 1 до {@value PAGE}, среди них все горячие,
+ * у каждой по {@code rows / 20} броней.
+ * <p>
+ * {@code lastBookings}/{@code nextBookings} — запросы по bookings, которыми сервис добирает брони
+ * вещей с устаревшими указателями; {@code ownerItems} и {@code ownerItem} — ответы владельцу
+ * целиком, с указателями, пересчитанными перед замером.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookingLookupBenchmark {
+    private static final int PAGE = 20;
+    private static final int REFRESH_CHUNK = 1000;
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int rows;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private List<Long> page;
+
+    @Setup
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        Datasets.seed(context.getBean(JdbcTemplate.class), rows);
+        refreshBookingPointers();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        page = LongStream.rangeClosed(1, PAGE).boxed().toList();
+    }
+
+    private void refreshBookingPointers() {
+        var itemRepository = context.getBean(ItemRepository.class);
+        var transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        var now = LocalDateTime.now();
+        var items = Datasets.items(rows);
+        for (long from = 1; from <= items; from += REFRESH_CHUNK) {
+            var ids = LongStream.range(from, Math.min(from + REFRESH_CHUNK, items + 1)).boxed().toList();
+            transactions.executeWithoutResult(status -> itemRepository.refreshBookingPointers(ids, now));
+        }
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<Long, BookingDto> lastBookings() {
+        return bookingService.getLastBookings(page);
+    }
+
+    @Benchmark
+    public Map<Long, BookingDto> nextBookings() {
+        return bookingService.getNextBookings(page);
+    }
+
+    @Benchmark
+    public List<ItemAllFieldsDto> ownerItems() {
+        return itemService.getAllItems(POWER_OWNER_ID, 0, PAGE);
+    }
+
+    @Benchmark
+    public ItemAllFieldsDto ownerItem() {
+        return itemService.get((long) HOT_ITEMS, POWER_OWNER_ID);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.BookingPointers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Наборы данных для бенчмарков с перекосом, как в рабочей базе: на каждого десятого пользователя
+ * приходится основная часть вещей, а половина броней — на {@value HOT_ITEMS} «горячих» вещей
+ * владельца с id {@value POWER_OWNER_ID}. Генерация детерминирована: один и тот же размер даёт
+ * одни и те же данные.
+ */
+public final class Datasets {
+    public static final long POWER_OWNER_ID = 1;
+    public static final int HOT_ITEMS = 10;
+    private static final long SEED = 42;
+
+    private Datasets() {
+    }
+
+    public static int users(int bookings) {
+        return Math.max(100, bookings / 100);
+    }
+
+    public static int items(int bookings) {
+        return Math.max(100, bookings / 10);
+    }
+
+    /**
+     * Брони в памяти, с вещами, владельцами и бронирующими, — для мапперов.
+     */
+    public static List<Booking> bookings(int count) {
+        var random = new SplittableRandom(SEED);
+        var users = new ArrayList<User>();
+        for (var i = 1; i <= users(count); i++)
+            users.add(User.builder().id((long) i).name("User" + i).email("user" + i + "@mail.com").build());
+        var items = new ArrayList<Item>();
+        for (var i = 1; i <= items(count); i++) {
+            var owner = i <= items(count) / 10 ? users.get(0) : users.get(random.nextInt(users.size()));
+            items.add(Item.builder()
+                    .id((long) i)
+                    .name("Item" + i)
+                    .description("Description of item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(i % 5 == 0 ? ItemRequest.builder().id((long) i / 5).build() : null)
+                    .version(0L)
+                    .bookingPointers(new BookingPointers((long) i, owner.getId(), (long) i + 1, owner.getId(),
+                            LocalDateTime.now().plusDays(1)))
+                    .build());
+        }
+        var start = LocalDateTime.now().minusDays(count / 2);
+        var bookings = new ArrayList<Booking>(count);
+        for (var i = 0; i < count; i++) {
+            var item = i % 2 == 0 ? items.get(i / 2 % HOT_ITEMS) : items.get(random.nextInt(items.size()));
+            bookings.add(Booking.builder()
+                    .id((long) i + 1)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .item(item)
+                    .booker(users.get(1 + random.nextInt(users.size() - 1)))
+                    .status(i % 10 == 0 ? BookingState.WAITING : BookingState.APPROVED)
+                    .build());
+        }
+        return bookings;
+    }
+
+    /**
+     * Заполняет пустую базу сервера теми же пропорциями, что и {@link #bookings}, одними
+     * INSERT ... SELECT: миллион броней вставляется за секунды.
+     */
+    public static void seed(JdbcTemplate jdbc, int bookings) {
+        var users = users(bookings);
+        var items = items(bookings);
+        jdbc.execute("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'User' || x, 'user' || x || '@mail.com' FROM SYSTEM_RANGE(1, " + users + ")");
+        jdbc.execute("INSERT INTO items (id, name, description, available, owner_id) "
+                + "SELECT x, 'Item' || x, 'Description of item ' || x, TRUE, "
+                + "CASE WHEN x <= " + items / 10 + " THEN " + POWER_OWNER_ID + " ELSE 1 + MOD(x * 7919, " + users + ") END "
+                + "FROM SYSTEM_RANGE(1, " + items + ")");
+        jdbc.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x, DATEADD('HOUR', x - " + bookings / 2 + ", LOCALTIMESTAMP), "
+                + "DATEADD('HOUR', x - " + bookings / 2 + " + 1, LOCALTIMESTAMP), "
+                + "CASE WHEN MOD(x, 2) = 0 THEN 1 + MOD(x / 2, " + HOT_ITEMS + ") ELSE 1 + MOD(x * 31, " + items + ") END, "
+                + "2 + MOD(x * 17, " + (users - 1) + "), "
+                + "CASE WHEN MOD(x, 10) = 0 THEN 'WAITING' ELSE 'APPROVED' END "
+                + "FROM SYSTEM_RANGE(1, " + bookings + ")");
+        jdbc.execute("INSERT INTO comments (text, item_id, author_id, created) "
+                + "SELECT 'Comment ' || x, 1 + MOD(x, " + items + "), 2 + MOD(x * 13, " + (users - 1) + "), LOCALTIMESTAMP "
+                + "FROM SYSTEM_RANGE(1, " + Math.max(100, bookings / 10) + ")");
+        jdbc.execute("ANALYZE");
+    }
+}
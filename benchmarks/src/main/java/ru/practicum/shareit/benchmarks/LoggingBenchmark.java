@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static ru.practicum.shareit.benchmarks.Datasets.HOT_ITEMS;
+import static ru.practicum.shareit.benchmarks.Datasets.POWER_OWNER_ID;
+
+/**
+ * Пропускная способность GET /items/{id} по HTTP через встроенный Tomcat при логировании
+ * по умолчанию (DEBUG приложения, {@code org.springframework.web} и SQL Hibernate, синхронная
+ * консоль) и в профиле {@code prod} (INFO, асинхронная очередь, выборочный SQL). Консоль на время
+ * замера уводится в файл: в замер входит запись на диск, а не вывод JMH. Разогрев длиннее, чем
+ * у остальных бенчмарков: весь путь запроса через сервлет и контекст Spring компилируется JIT
+ * заметно дольше маппера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class LoggingBenchmark {
+    private static final int ROWS = 10000;
+    @Param({"default", "prod"})
+    private String logging;
+    private PrintStream console;
+    private Path logFile;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void start() throws IOException {
+        console = System.out;
+        logFile = Files.createTempFile("shareit-logging-benchmark", ".log");
+        System.setOut(new PrintStream(Files.newOutputStream(logFile), false, UTF_8));
+        var profiles = logging.equals("prod") ? new String[]{"test", "prod"} : new String[]{"test"};
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles(profiles)
+                .run("--spring.datasource.url=jdbc:h2:mem:logging-benchmark", "--server.port=0");
+        Datasets.seed(context.getBean(JdbcTemplate.class), ROWS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/items/";
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+        client.close();
+        context.close();
+        System.out.close();
+        System.setOut(console);
+        console.printf("%nLog written in %s mode: %d KB%n", logging, Files.size(logFile) / 1024);
+        Files.delete(logFile);
+    }
+
+    /**
+     * Чужая горячая вещь: запрос вещи и её комментариев, без броней.
+     */
+    @Benchmark
+    public String item() throws IOException, InterruptedException {
+        var id = 1 + ThreadLocalRandom.current().nextInt(HOT_ITEMS);
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                .header("X-Sharer-User-Id", String.valueOf(POWER_OWNER_ID + 1))
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("GET /items/" + id + ": " + response.statusCode());
+        return response.body();
+    }
+}
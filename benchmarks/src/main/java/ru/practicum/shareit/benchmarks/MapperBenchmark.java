@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBookingAllFieldsDto;
+import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItemAllFieldsDto;
+
+/**
+ * Мапперы ответов на наборе из {@code rows} броней: время на одну запись, весь набор за операцию.
+ * На больших наборах записи не помещаются в кэш процессора, как и при выдаче длинных списков.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MapperBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void generate() {
+        bookings = Datasets.bookings(rows);
+        items = bookings.stream().map(Booking::getItem).toList();
+        comments = List.of(
+                new CommentDto(1L, 1L, "Works fine", "User2", LocalDateTime.now()),
+                new CommentDto(2L, 1L, "Battery is weak", "User3", LocalDateTime.now()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void itemAllFields(Blackhole blackhole) {
+        for (var i = 0; i < 1000; i++) {
+            var item = items.get(i * 7919 % rows);
+            var pointers = item.getBookingPointers();
+            blackhole.consume(mapToItemAllFieldsDto(item,
+                    new BookingDto(pointers.getLastBookingId(), pointers.getLastBookerId()),
+                    new BookingDto(pointers.getNextBookingId(), pointers.getNextBookerId()),
+                    comments));
+        }
+    }
+
+    /**
+     * Бронь со связями, как после выборки из базы: вещь и бронирующий мапятся из сущностей.
+     */
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void bookingAllFields(Blackhole blackhole) {
+        for (var i = 0; i < 1000; i++)
+            blackhole.consume(mapToBookingAllFieldsDto(bookings.get(i * 7919 % rows)));
+    }
+
+    /**
+     * Только что сохранённая бронь: вещь и бронирующий уже есть в виде DTO.
+     */
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void bookingAllFieldsWithKnownItem(Blackhole blackhole) {
+        for (var i = 0; i < 1000; i++) {
+            var booking = bookings.get(i * 7919 % rows);
+            var item = booking.getItem();
+            blackhole.consume(mapToBookingAllFieldsDto(booking,
+                    new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                            item.getOwner().getId(), null),
+                    new UserDto(booking.getBooker().getId(), booking.getBooker().getName(),
+                            booking.getBooker().getEmail())));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.utils.Pagination;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметров списков, который выполняется на каждый запрос: состояние брони из строки
+ * и страница из {@code from}/{@code size}. Входы перемешаны, чтобы ветви не угадывались.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestParsingBenchmark {
+    private static final int INPUTS = 1024;
+    private static final Sort BY_START = Sort.by("start").descending();
+    private final String[] states = new String[INPUTS];
+    private final int[] froms = new int[INPUTS];
+    private final int[] sizes = new int[INPUTS];
+
+    @Setup
+    public void generate() {
+        var random = new SplittableRandom(42);
+        var names = new String[BookingState.values().length + BookingTimeState.values().length];
+        var i = 0;
+        for (var state : BookingState.values()) names[i++] = state.name();
+        for (var state : BookingTimeState.values()) names[i++] = state.name();
+        for (i = 0; i < INPUTS; i++) {
+            states[i] = names[random.nextInt(names.length)];
+            froms[i] = random.nextInt(10_000);
+            sizes[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    /**
+     * Состояние из параметра {@code state} так же, как в {@code BookingServiceImpl.getAllBookings}:
+     * сравнение с временными состояниями, затем поиск среди статусов брони.
+     */
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void bookingState(Blackhole blackhole) {
+        for (var state : states) {
+            Object parsed = null;
+            for (var timeState : BookingTimeState.values())
+                if (timeState.name().equals(state)) parsed = timeState;
+            if (Arrays.stream(BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+                parsed = BookingState.valueOf(state);
+            blackhole.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void pageRequest(Blackhole blackhole) {
+        for (var i = 0; i < INPUTS; i++)
+            blackhole.consume(Pagination.makePageRequest(froms[i], sizes[i], BY_START));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void invalidPageRequest(Blackhole blackhole) {
+        for (var i = 0; i < INPUTS; i++) {
+            try {
+                blackhole.consume(Pagination.makePageRequest(-froms[i], sizes[i], BY_START));
+            } catch (ValidationException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
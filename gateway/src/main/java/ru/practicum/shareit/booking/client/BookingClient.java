@@ -4,13 +4,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.cache.ResponseCacheInterceptor;
+import ru.practicum.shareit.client.config.ServerRequestFactories;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -20,35 +23,45 @@ public class BookingClient extends BaseClient {
 
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl,
-                         RestTemplateBuilder builder) {
+                         RestTemplateBuilder builder,
+                         ServerRequestFactories requestFactories,
+                         ResponseCacheInterceptor responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build()
+                .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                .additionalInterceptors(responseCache)
+                .build()
         );
     }
 
     public ResponseEntity<Object> getBookings(Long userId,
                                               BookingState state,
                                               Integer from,
-                                              Integer size) {
-        Map<String, Object> parameters = Map.of(
+                                              Integer size,
+                                              String after,
+                                              Boolean count) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        var path = withParameter("?state={state}&from={from}&size={size}", parameters, "after", after);
+        return get(withParameter(path, parameters, "count", count), userId, parameters);
     }
 
     public ResponseEntity<Object> getOwnerBookings(Long userId,
                                                    BookingState state,
                                                    Integer from,
-                                                   Integer size) {
-        Map<String, Object> parameters = Map.of(
+                                                   Integer size,
+                                                   String after,
+                                                   Boolean count) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        var path = withParameter("/owner?state={state}&from={from}&size={size}", parameters, "after", after);
+        return get(withParameter(path, parameters, "count", count), userId, parameters);
     }
 
     public ResponseEntity<Object> createBooking(Long userId,
@@ -56,6 +69,12 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> createBookings(Long userId,
+                                                 List<BookingRequestDto> requestDtos,
+                                                 Map<Integer, String> errors) {
+        return postBatch("/batch", userId, requestDtos, errors);
+    }
+
     public ResponseEntity<Object> getBooking(Long userId,
                                              Long bookingId) {
         return get("/" + bookingId, userId);
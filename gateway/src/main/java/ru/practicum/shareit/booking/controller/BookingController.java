@@ -13,6 +13,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.validation.BatchValidator;
+
+import java.util.List;
 
 
 @Controller
@@ -23,25 +26,30 @@ import ru.practicum.shareit.booking.dto.BookingState;
 public class BookingController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
     private final BookingClient bookingClient;
+    private final BatchValidator batchValidator;
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                   @RequestParam(name = "after", required = false) String after,
+                                                   @RequestParam(name = "count", required = false) Boolean count,
                                                    @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
         var state = BookingState.from(stateParam).orElseThrow(
                 () -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+        return bookingClient.getOwnerBookings(userId, state, from, size, after, count);
     }
 
     @GetMapping
     public ResponseEntity<Object> getBookings(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                              @RequestParam(name = "after", required = false) String after,
+                                              @RequestParam(name = "count", required = false) Boolean count,
                                               @RequestHeader(HEADER_SHARER_USER_ID) Long userId) {
         var state = BookingState.from(stateParam).orElseThrow(
                 () -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, after, count);
     }
 
     @PatchMapping("/{bookingId}")
@@ -60,6 +68,15 @@ public class BookingController {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
+                                                 @RequestBody List<BookingRequestDto> requestDtos) {
+        var errors = batchValidator.validate(requestDtos, requestDto ->
+                requestDto.getStart() != null && requestDto.getEnd() != null
+                        && requestDto.getStart().isAfter(requestDto.getEnd()) ? "Incorrect date of booking" : null);
+        return bookingClient.createBookings(userId, requestDtos, errors);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(HEADER_SHARER_USER_ID) Long userId,
                                              @PathVariable Long bookingId) {
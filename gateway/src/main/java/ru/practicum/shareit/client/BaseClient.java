@@ -1,14 +1,27 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import static java.util.Comparator.comparingInt;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade");
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -75,7 +88,102 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Закрывает тело ответа, который не уходит клиенту, чтобы соединение вернулось в пул.
+     */
+    protected static void discard(ResponseEntity<Object> response) {
+        if (response.getBody() instanceof InputStreamResource resource) {
+            try {
+                resource.getInputStream().close();
+            } catch (IOException e) {
+                throw new ResourceAccessException("Failed to release server response: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Добавляет к запросу необязательный параметр (курсор, запрос общего числа), если он передан клиентом.
+     */
+    protected static String withParameter(String path, Map<String, Object> parameters, String name, @Nullable Object value) {
+        if (value == null) return path;
+        parameters.put(name, value);
+        return path + "&" + name + "={" + name + "}";
+    }
+
+    /**
+     * Отправляет на сервер элементы пакета, прошедшие проверку шлюза, и сводит ответ сервера
+     * с ошибками шлюза: у каждого результата — позиция элемента в исходном списке.
+     * Если сервер отклонил пакет целиком, его ответ возвращается как есть.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> ResponseEntity<Object> postBatch(String path, Long userId, List<T> elements, Map<Integer, String> errors) {
+        var positions = new ArrayList<Integer>();
+        var valid = new ArrayList<T>();
+        for (var i = 0; i < elements.size(); i++) {
+            if (errors.containsKey(i)) continue;
+            positions.add(i);
+            valid.add(elements.get(i));
+        }
+        var results = new ArrayList<Map<String, Object>>(elements.size());
+        errors.forEach((index, error) -> {
+            var result = new LinkedHashMap<String, Object>();
+            result.put("index", index);
+            result.put("status", HttpStatus.BAD_REQUEST.value());
+            result.put("result", null);
+            result.put("error", error);
+            results.add(result);
+        });
+        if (!valid.isEmpty()) {
+            var response = exchangeForBody(HttpMethod.POST, path, userId, null, valid);
+            if (!response.getStatusCode().is2xxSuccessful()) return response;
+            for (var result : (List<Map<String, Object>>) response.getBody()) {
+                result.put("index", positions.get(((Number) result.get("index")).intValue()));
+                results.add(result);
+            }
+        }
+        results.sort(comparingInt(result -> ((Number) result.get("index")).intValue()));
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Проксирует запрос на сервер без разбора ответа: код, заголовки и тело сервера уходят
+     * клиенту как есть, тело — потоком прямо из соединения с сервером. Соединение возвращается
+     * в пул, когда тело дочитано или поток закрыт.
+     */
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        var uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        try {
+            var request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(new HttpEntity<>(body, defaultHeaders(userId))).doWithRequest(request);
+            response = request.execute();
+            return passThrough(response);
+        } catch (IOException e) {
+            if (response != null) response.close();
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private static ResponseEntity<Object> passThrough(ClientHttpResponse response) throws IOException {
+        var headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) headers.put(name, values);
+        });
+        var body = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(new InputStreamResource(body));
+    }
+
+    /**
+     * Запрос с разбором ответа сервера — для тех случаев, когда шлюзу нужно само тело.
+     */
+    private <T> ResponseEntity<Object> exchangeForBody(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
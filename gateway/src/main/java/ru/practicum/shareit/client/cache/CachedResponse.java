@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * Ответ сервера, сохранённый в кэше шлюза целиком, вместе с ETag и временем последней проверки.
+ */
+record CachedResponse(String etag, HttpHeaders headers, byte[] body, Instant checkedAt) {
+
+    CachedResponse revalidated(Instant now) {
+        return new CachedResponse(etag, headers, body, now);
+    }
+
+    ClientHttpResponse toResponse() {
+        return new Response(HttpStatus.OK, headers, body);
+    }
+
+    /**
+     * Ответ клиенту, у которого уже есть эта версия: только статус и ETag.
+     */
+    ClientHttpResponse toNotModified() {
+        var notModified = new HttpHeaders();
+        notModified.setETag(etag);
+        return new Response(HttpStatus.NOT_MODIFIED, notModified, new byte[0]);
+    }
+
+    private record Response(HttpStatusCode status, HttpHeaders headers, byte[] body) implements ClientHttpResponse {
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return status instanceof HttpStatus known ? known.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.client.config.ResponseCacheProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Кэш ответов сервера на чтение отдельных пользователей, вещей и запросов. Ответ хранится
+ * по пути и {@code X-Sharer-User-Id}: вещь владельцу и другим пользователям выглядит по-разному.
+ * <p>
+ * Пока ответ свежий ({@code freshFor}), он отдаётся без обращения к серверу; потом сервер
+ * проверяет его по {@code If-None-Match} и отвечает 304, если ресурс не менялся. Изменяющие
+ * запросы удаляют из кэша свой путь и пути из заголовка {@code X-Cache-Invalidate} ответа сервера.
+ * Если ETag ответа совпал с {@code If-None-Match} клиента, клиенту уходит 304 без тела.
+ */
+@Slf4j
+@Component
+public class ResponseCacheInterceptor implements ClientHttpRequestInterceptor {
+    public static final String INVALIDATE_HEADER = "X-Cache-Invalidate";
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("^/(users|items|requests)/\\d+$");
+    private final ResponseCacheProperties properties;
+    /**
+     * Текущее поколение ответов по пути. Удаление пути из кэша — смена поколения: ответ на запрос,
+     * начатый до удаления, сохраняется под старым поколением, не находится и вытесняется как любой другой.
+     */
+    private final Cache<String, Long> generations;
+    private final AtomicLong lastGeneration = new AtomicLong();
+    /**
+     * Ответы по пути, поколению и пользователю. Каждый ответ — отдельная запись, поэтому
+     * {@code maximumSize} ограничивает кэш при любом числе разных {@code X-Sharer-User-Id}.
+     */
+    private final Cache<Key, CachedResponse> responses;
+
+    public ResponseCacheInterceptor(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getTtl())
+                .build();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getTtl())
+                .build();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!properties.isEnabled()) return execution.execute(request, body);
+        var path = request.getURI().getPath();
+        if (request.getMethod() != HttpMethod.GET) return invalidate(path, execution.execute(request, body));
+        if (!CACHEABLE_PATH.matcher(path).matches()) return execution.execute(request, body);
+
+        var generation = generations.get(path, key -> lastGeneration.incrementAndGet());
+        var key = new Key(path, generation, String.valueOf(request.getHeaders().getFirst(HEADER_SHARER_USER_ID)));
+        var cached = responses.getIfPresent(key);
+        var now = Instant.now();
+        if (cached != null && cached.checkedAt().plus(properties.getFreshFor()).isAfter(now)) {
+            log.debug("Response cache hit: {}", path);
+            return reply(cached);
+        }
+        if (cached != null) request.getHeaders().setIfNoneMatch(cached.etag());
+        var response = execution.execute(request, body);
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            response.close();
+            log.debug("Response cache revalidated: {}", path);
+            var revalidated = cached.revalidated(now);
+            responses.put(key, revalidated);
+            return reply(revalidated);
+        }
+        var etag = response.getHeaders().getETag();
+        if (response.getStatusCode() != HttpStatus.OK || etag == null) {
+            responses.invalidate(key);
+            return response;
+        }
+        byte[] content;
+        try (response) {
+            content = response.getBody().readAllBytes();
+        }
+        var stored = new CachedResponse(etag, HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), content, now);
+        responses.put(key, stored);
+        return reply(stored);
+    }
+
+    private ClientHttpResponse invalidate(String path, ClientHttpResponse response) {
+        generations.invalidate(path);
+        var paths = response.getHeaders().getOrEmpty(INVALIDATE_HEADER);
+        if (paths.isEmpty()) return response;
+        log.debug("Response cache invalidated: {}, {}", path, paths);
+        generations.invalidateAll(paths);
+        return withoutInvalidateHeader(response);
+    }
+
+    /**
+     * Число сохранённых ответов после вытеснения лишних.
+     */
+    long size() {
+        responses.cleanUp();
+        return responses.estimatedSize();
+    }
+
+    /**
+     * Сравнивает ETag с {@code If-None-Match} запроса клиента к шлюзу.
+     */
+    private static ClientHttpResponse reply(CachedResponse cached) {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            var ifNoneMatch = servlet.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && List.of(ifNoneMatch.split("\\s*,\\s*")).contains(cached.etag()))
+                return cached.toNotModified();
+        }
+        return cached.toResponse();
+    }
+
+    /**
+     * Заголовок адресован только шлюзу, клиенту он не передаётся.
+     */
+    private static ClientHttpResponse withoutInvalidateHeader(ClientHttpResponse response) {
+        var headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(INVALIDATE_HEADER);
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() throws IOException {
+                return response.getStatusCode();
+            }
+
+            @Override
+            public String getStatusText() throws IOException {
+                return response.getStatusText();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() throws IOException {
+                return response.getBody();
+            }
+
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+    }
+
+    private record Key(String path, long generation, String userId) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера в шлюзе ({@code GET /users/{id}}, {@code /items/{id}}, {@code /requests/{id}}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    /**
+     * Сколько ответов держит кэш; ответы разным пользователям по одному пути считаются отдельно.
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Сколько ответ отдаётся из кэша без обращения к серверу. Изменения, о которых сервер
+     * не сообщает (наступление брони по времени, правки из другого экземпляра шлюза),
+     * видны с задержкой не больше этой.
+     */
+    private Duration freshFor = Duration.ofSeconds(10);
+    /**
+     * Сколько ответ хранится без обращений к нему.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Один HTTP-клиент с пулом соединений на все клиенты шлюза: соединения с сервером
+ * переиспользуются, а их число ограничено, сколько бы запросов ни принял шлюз.
+ */
+@Configuration
+@EnableConfigurationProperties({ServerClientProperties.class, ResponseCacheProperties.class})
+public class ServerClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(ServerClientProperties properties) {
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .evictExpiredConnections()
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки общего пула HTTP-соединений шлюза с сервером.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    /**
+     * Соединений с сервером на весь шлюз; все клиенты ходят на один адрес, поэтому это же
+     * ограничение действует и на маршрут.
+     */
+    private int maxConnections = 200;
+    /**
+     * Сколько запрос ждёт свободного соединения из пула, прежде чем шлюз ответит ошибкой.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Таймаут ответа сервера по умолчанию.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    /**
+     * Таймауты ответа по префиксам API без косой черты ({@code bookings: 5s}), перекрывают общий.
+     */
+    private Map<String, Duration> routeTimeouts = new HashMap<>();
+    /**
+     * Через сколько простоя соединение закрывается.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+}
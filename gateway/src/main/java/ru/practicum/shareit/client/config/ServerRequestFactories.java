@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client.config;
+
+import lombok.AllArgsConstructor;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фабрики запросов клиентов шлюза поверх общего HTTP-клиента, каждая — со своим таймаутом ответа.
+ */
+@Component
+@AllArgsConstructor
+public class ServerRequestFactories {
+    private final CloseableHttpClient serverHttpClient;
+    private final ServerClientProperties properties;
+
+    /**
+     * @param apiPrefix префикс API клиента, например {@code /bookings}
+     */
+    public ClientHttpRequestFactory forRoute(String apiPrefix) {
+        var responseTimeout = properties.getRouteTimeouts()
+                .getOrDefault(apiPrefix.replaceFirst("^/", ""), properties.getResponseTimeout());
+        var requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .build();
+        var factory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        factory.setHttpContextFactory((method, uri) -> {
+            var context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+        return factory;
+    }
+}
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.error;
 
 import jakarta.validation.ConstraintViolationException;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.net.SocketTimeoutException;
 import java.util.Objects;
 
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 
 @RestControllerAdvice
@@ -31,6 +37,19 @@ public class ErrorHandler {
         return new ErrorResponse(Objects.requireNonNull(e.getFieldError()).getDefaultMessage());
     }
 
+    /**
+     * Сервер не ответил за таймаут маршрута — 504. Сервер недоступен, в пуле не нашлось свободного
+     * соединения или соединение оборвалось — 502. Таймаут установки соединения тоже
+     * {@link SocketTimeoutException}, но это недоступность сервера, а не медленный ответ.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(final ResourceAccessException e) {
+        if (e.getCause() instanceof SocketTimeoutException && !(e.getCause() instanceof ConnectTimeoutException))
+            return ResponseEntity.status(GATEWAY_TIMEOUT)
+                    .body(new ErrorResponse("Server did not respond in time: " + e.getMessage()));
+        return ResponseEntity.status(BAD_GATEWAY).body(new ErrorResponse("Server is unavailable: " + e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(final Throwable e) {
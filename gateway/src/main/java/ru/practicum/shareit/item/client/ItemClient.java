@@ -4,13 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.cache.ResponseCacheInterceptor;
+import ru.practicum.shareit.client.config.ServerRequestFactories;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,10 +23,13 @@ public class ItemClient extends BaseClient {
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
+                      RestTemplateBuilder builder,
+                      ServerRequestFactories requestFactories,
+                      ResponseCacheInterceptor responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                .additionalInterceptors(responseCache)
                 .build()
         );
     }
@@ -30,13 +37,16 @@ public class ItemClient extends BaseClient {
     public ResponseEntity<Object> searchItems(String text,
                                               Long userId,
                                               Integer from,
-                                              Integer size) {
-        Map<String, Object> parameters = Map.of(
+                                              Integer size,
+                                              String after,
+                                              Boolean count) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        ));
+        var path = withParameter("/search?text={text}&from={from}&size={size}", parameters, "after", after);
+        return get(withParameter(path, parameters, "count", count), userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(CommentDto commentDto,
@@ -53,12 +63,15 @@ public class ItemClient extends BaseClient {
 
     public ResponseEntity<Object> getItems(Long userId,
                                            Integer from,
-                                           Integer size) {
-        Map<String, Object> parameters = Map.of(
+                                           Integer size,
+                                           String after,
+                                           Boolean count) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        var path = withParameter("?from={from}&size={size}", parameters, "after", after);
+        return get(withParameter(path, parameters, "count", count), userId, parameters);
     }
 
     public ResponseEntity<Object> createItem(ItemDto itemDto,
@@ -66,12 +79,27 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(List<ItemDto> itemDtos,
+                                              Map<Integer, String> errors,
+                                              Long userId) {
+        return postBatch("/batch", userId, itemDtos, errors);
+    }
+
     public ResponseEntity<Object> getItem(Long itemId,
                                           Long userId) {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getAvailability(Long itemId,
+                                                  Long userId,
+                                                  LocalDate from,
+                                                  LocalDate to) {
+        Map<String, Object> parameters = new HashMap<>();
+        var path = withParameter("/" + itemId + "/availability?", parameters, "from", from);
+        return get(withParameter(path, parameters, "to", to), userId, parameters);
+    }
+
     public void deleteItem(Long itemId) {
-        delete("/" + itemId);
+        discard(delete("/" + itemId));
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,7 +14,11 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.validation.BatchValidator;
+import ru.practicum.shareit.validation.Create;
 
+import java.time.LocalDate;
+import java.util.List;
 
 @Controller
 @RequestMapping("/items")
@@ -22,20 +27,25 @@ import ru.practicum.shareit.item.dto.ItemDto;
 public class ItemController {
     private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
     private final ItemClient itemClient;
+    private final BatchValidator batchValidator;
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
-                                              @NotNull @RequestParam(required = false) String text) {
-        return itemClient.searchItems(text, userId, from, size);
+                                              @NotNull @RequestParam(required = false) String text,
+                                              @RequestParam(name = "after", required = false) String after,
+                                              @RequestParam(name = "count", required = false) Boolean count) {
+        return itemClient.searchItems(text, userId, from, size, after, count);
     }
 
     @GetMapping()
     public ResponseEntity<Object> getAllItems(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                               @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return itemClient.getItems(userId, from, size);
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "after", required = false) String after,
+                                              @RequestParam(name = "count", required = false) Boolean count) {
+        return itemClient.getItems(userId, from, size, after, count);
     }
 
     @PatchMapping("/{itemId}")
@@ -52,12 +62,28 @@ public class ItemController {
         return itemClient.createItem(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                              @RequestBody List<ItemDto> itemDtos) {
+        return itemClient.createItems(itemDtos, batchValidator.validate(itemDtos, Create.class), userId);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItem(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
                                           @PathVariable Long itemId) {
         return itemClient.getItem(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam(name = "from", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(name = "to", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemClient.getAvailability(itemId, userId, from, to);
+    }
+
     @Validated
     @PostMapping("{itemId}/comment")
     public ResponseEntity<Object> createItemComment(@RequestHeader(value = HEADER_SHARER_USER_ID) Long userId,
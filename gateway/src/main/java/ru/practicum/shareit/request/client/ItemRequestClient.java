@@ -4,12 +4,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.cache.ResponseCacheInterceptor;
+import ru.practicum.shareit.client.config.ServerRequestFactories;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 
@@ -18,10 +20,13 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ServerRequestFactories requestFactories,
+                             ResponseCacheInterceptor responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                .additionalInterceptors(responseCache)
                 .build()
         );
     }
@@ -31,12 +36,13 @@ public class ItemRequestClient extends BaseClient {
 
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Integer from, Integer size, Long userId) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getAllItemRequests(Integer from, Integer size, String after, Boolean count, Long userId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all/?from={from}&size={size}", userId, parameters);
+        ));
+        var path = withParameter("/all?from={from}&size={size}", parameters, "after", after);
+        return get(withParameter(path, parameters, "count", count), userId, parameters);
     }
 
     public ResponseEntity<Object> getItemRequest(Long requestId, Long userId) {
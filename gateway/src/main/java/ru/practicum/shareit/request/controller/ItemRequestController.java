@@ -59,8 +59,10 @@ public class ItemRequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllItemRequests(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                      @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return itemRequestClient.getAllItemRequests(from, size, userId);
+                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "count", required = false) Boolean count) {
+        return itemRequestClient.getAllItemRequests(from, size, after, count, userId);
     }
 
     @Validated
@@ -4,22 +4,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.cache.ResponseCacheInterceptor;
+import ru.practicum.shareit.client.config.ServerRequestFactories;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Map;
+
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerRequestFactories requestFactories,
+                      ResponseCacheInterceptor responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                .additionalInterceptors(responseCache)
                 .build()
         );
     }
@@ -32,6 +39,10 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
+    public ResponseEntity<Object> createUsers(List<UserDto> userDtos, Map<Integer, String> errors) {
+        return postBatch("/batch", null, userDtos, errors);
+    }
+
     public ResponseEntity<Object> getUser(Long userId) {
         return get("/" + userId);
     }
@@ -41,6 +52,6 @@ public class UserClient extends BaseClient {
     }
 
     public void deleteUser(Long userId) {
-        delete("/" + userId);
+        discard(delete("/" + userId));
     }
 }
\ No newline at end of file
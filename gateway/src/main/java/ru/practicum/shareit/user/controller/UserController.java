@@ -9,6 +9,10 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.validation.BatchValidator;
+import ru.practicum.shareit.validation.Create;
+
+import java.util.List;
 
 
 @Slf4j
@@ -18,6 +22,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserClient userClient;
+    private final BatchValidator batchValidator;
 
     @Validated
     @PostMapping()
@@ -25,6 +30,11 @@ public class UserController {
         return userClient.createUser(userDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createUsers(@RequestBody List<UserDto> userDtos) {
+        return userClient.createUsers(userDtos, batchValidator.validate(userDtos, Create.class));
+    }
+
     @Validated
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@RequestBody @Valid UserDto userDto,
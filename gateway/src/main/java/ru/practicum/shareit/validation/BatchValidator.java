@@ -0,0 +1,46 @@
+package ru.practicum.shareit.validation;
+
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Проверка элементов пакетного запроса по одному: ошибка элемента не отклоняет весь пакет,
+ * а возвращается клиенту рядом с результатами остальных элементов.
+ */
+@Component
+@AllArgsConstructor
+public class BatchValidator {
+    public static final int MAX_BATCH_SIZE = 1000;
+    private final Validator validator;
+
+    public <T> Map<Integer, String> validate(List<T> elements, Class<?>... groups) {
+        return validate(elements, element -> null, groups);
+    }
+
+    /**
+     * @param check дополнительная проверка элемента, не выразимая аннотациями; {@code null} — ошибок нет
+     * @return сообщения об ошибках по позициям элементов; корректных элементов в ответе нет
+     */
+    public <T> Map<Integer, String> validate(List<T> elements, Function<T, String> check, Class<?>... groups) {
+        if (elements.size() > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("Batch size cannot exceed " + MAX_BATCH_SIZE);
+        var errors = new HashMap<Integer, String>();
+        for (var i = 0; i < elements.size(); i++) {
+            var element = elements.get(i);
+            if (element == null) {
+                errors.put(i, "Batch element cannot be null");
+                continue;
+            }
+            var violations = validator.validate(element, groups);
+            var error = violations.isEmpty() ? check.apply(element) : violations.iterator().next().getMessage();
+            if (error != null) errors.put(i, error);
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.client.StubServer.respond;
+
+/**
+ * Проксирование запросов шлюзом против сервера-заглушки: заголовки и тело ответа сервера
+ * уходят клиенту как есть, кроме заголовков соединения, а пакетный ответ сервера сводится
+ * с ошибками проверки в шлюзе.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BaseClientTest {
+    private static final StubServer SERVER = new StubServer();
+    private static final AtomicReference<String> BATCH = new AtomicReference<>();
+    private static final String NOT_FOUND = "{\"error\":\"Пользователь с ID #2 не существует.\"}";
+    private final MockMvc mvc;
+
+    static {
+        SERVER.route("/users/1", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Keep-Alive", "timeout=60");
+            exchange.getResponseHeaders().add("Upgrade", "h2c");
+            exchange.getResponseHeaders().add("X-Request-Id", "42");
+            exchange.sendResponseHeaders(200, 0);
+            try (var stream = exchange.getResponseBody()) {
+                stream.write("{\"id\":1,".getBytes(StandardCharsets.UTF_8));
+                stream.flush();
+                stream.write("\"name\":\"Paul\"}".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        SERVER.route("/users/2", exchange ->
+                respond(exchange, 404, Map.of("Content-Type", "application/json;charset=UTF-8"), NOT_FOUND));
+        SERVER.route("/users/3", exchange ->
+                respond(exchange, 500, Map.of("Content-Type", "text/plain"), "  not json\n"));
+        SERVER.route("/users/batch", exchange -> {
+            var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            BATCH.set(body);
+            if (body.contains("taken@mail.com")) {
+                respond(exchange, 409, Map.of("Content-Type", "application/json"), "{\"error\":\"taken\"}");
+                return;
+            }
+            respond(exchange, 200, Map.of("Content-Type", "application/json"), "[" +
+                    "{\"index\":0,\"status\":201,\"result\":{\"id\":1},\"error\":null}," +
+                    "{\"index\":1,\"status\":409,\"result\":null,\"error\":\"duplicate\"}]");
+        });
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void shouldStripHopByHopHeaders() throws Exception {
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Request-Id", "42"))
+                .andExpect(header().doesNotExist("Keep-Alive"))
+                .andExpect(header().doesNotExist("Upgrade"))
+                .andExpect(header().doesNotExist("Transfer-Encoding"))
+                .andExpect(header().doesNotExist("Connection"))
+                .andExpect(content().string("{\"id\":1,\"name\":\"Paul\"}"));
+    }
+
+    @Test
+    void shouldStreamErrorBodyUnchanged() throws Exception {
+        mvc.perform(get("/users/2"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(content().bytes(NOT_FOUND.getBytes(StandardCharsets.UTF_8)));
+        mvc.perform(get("/users/3"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("  not json\n"));
+    }
+
+    @Test
+    void shouldMergeGatewayErrorsIntoBatchResults() throws Exception {
+        mvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Paul\",\"email\":\"paul@mail.com\"}," +
+                                "{\"name\":\"\",\"email\":\"blank@mail.com\"}," +
+                                "{\"name\":\"Eddie\",\"email\":\"eddie@mail.com\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" +
+                        "{\"index\":0,\"status\":201,\"result\":{\"id\":1},\"error\":null}," +
+                        "{\"index\":1,\"status\":400,\"result\":null,\"error\":\"Name cannot be blank\"}," +
+                        "{\"index\":2,\"status\":409,\"result\":null,\"error\":\"duplicate\"}]", true));
+
+        assertThat(BATCH.get(), equalTo("[{\"id\":null,\"name\":\"Paul\",\"email\":\"paul@mail.com\"}," +
+                "{\"id\":null,\"name\":\"Eddie\",\"email\":\"eddie@mail.com\"}]"));
+    }
+
+    @Test
+    void shouldReturnServerResponseWhenBatchIsRejected() throws Exception {
+        mvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Paul\",\"email\":\"taken@mail.com\"}]"))
+                .andExpect(status().isConflict())
+                .andExpect(content().json("{\"error\":\"taken\"}"));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Сервер-заглушка вместо сервера ShareIt на свободном порту: обработчики задаются по пути,
+ * каждый запрос обслуживается в своём потоке, чтобы медленный маршрут не задерживал остальные.
+ */
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public StubServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void route(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    public static void respond(HttpExchange exchange, int status, Map<String, String> headers, String body)
+            throws IOException {
+        var content = body.getBytes(StandardCharsets.UTF_8);
+        headers.forEach(exchange.getResponseHeaders()::add);
+        exchange.sendResponseHeaders(status, content.length == 0 ? -1 : content.length);
+        try (var stream = exchange.getResponseBody()) {
+            stream.write(content);
+        }
+    }
+
+    public static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.client.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.client.config.ResponseCacheProperties;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class ResponseCacheInterceptorTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<String> ifNoneMatch = new ArrayList<>();
+    private String etag = "\"1\"";
+    private List<String> invalidate = List.of();
+    /**
+     * Сервер отвечает телом с id пользователя и текущим ETag, а на совпавший {@code If-None-Match} — 304.
+     */
+    private final ClientHttpRequestExecution server = (request, body) -> {
+        calls.incrementAndGet();
+        var headers = request.getHeaders();
+        if (request.getMethod() != HttpMethod.GET) {
+            var response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            invalidate.forEach(path -> response.getHeaders().add(ResponseCacheInterceptor.INVALIDATE_HEADER, path));
+            return response;
+        }
+        ifNoneMatch.add(headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+        if (etag.equals(headers.getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            var response = new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(etag);
+            return response;
+        }
+        var content = "{\"user\":" + headers.getFirst(HEADER_SHARER_USER_ID) + "}";
+        var response = new MockClientHttpResponse(content.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        response.getHeaders().setETag(etag);
+        return response;
+    };
+    private ResponseCacheProperties properties;
+    private ResponseCacheInterceptor interceptor;
+
+    @BeforeEach
+    void initialize() {
+        properties = new ResponseCacheProperties();
+        properties.setMaximumSize(100);
+        interceptor = new ResponseCacheInterceptor(properties);
+    }
+
+    @AfterEach
+    void cleanup() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Reply execute(HttpMethod method, String path, Object userId) throws Exception {
+        var request = new MockClientHttpRequest(method, URI.create("http://localhost" + path));
+        request.getHeaders().add(HEADER_SHARER_USER_ID, String.valueOf(userId));
+        try (var response = interceptor.intercept(request, new byte[0], server)) {
+            return new Reply(response.getStatusCode(), response.getHeaders(),
+                    new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private record Reply(HttpStatusCode status, HttpHeaders headers, String body) {
+    }
+
+    @Test
+    void shouldStayWithinMaximumSizeForManyUsers() throws Exception {
+        for (var userId = 0; userId < 10_000; userId++)
+            execute(HttpMethod.GET, "/items/1", userId);
+
+        assertThat(interceptor.size(), lessThanOrEqualTo(properties.getMaximumSize()));
+    }
+
+    @Test
+    void shouldReplyFromCacheUntilPathChanges() throws Exception {
+        execute(HttpMethod.GET, "/items/1", 1);
+        execute(HttpMethod.GET, "/items/1", 1);
+        execute(HttpMethod.GET, "/items/1", 2);
+        assertThat(calls.get(), equalTo(2));
+
+        execute(HttpMethod.PATCH, "/items/1", 1);
+        execute(HttpMethod.GET, "/items/1", 1);
+        execute(HttpMethod.GET, "/items/1", 2);
+        assertThat(calls.get(), equalTo(5));
+    }
+
+    @Test
+    void shouldKeepResponsesOfDifferentUsersApart() throws Exception {
+        assertThat(execute(HttpMethod.GET, "/items/1", 1).body(), equalTo("{\"user\":1}"));
+        assertThat(execute(HttpMethod.GET, "/items/1", 2).body(), equalTo("{\"user\":2}"));
+        assertThat(execute(HttpMethod.GET, "/items/1", 1).body(), equalTo("{\"user\":1}"));
+        assertThat(execute(HttpMethod.GET, "/items/1", 2).body(), equalTo("{\"user\":2}"));
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldRevalidateStaleResponseWithEtag() throws Exception {
+        properties.setFreshFor(Duration.ZERO);
+        execute(HttpMethod.GET, "/items/1", 1);
+
+        var revalidated = execute(HttpMethod.GET, "/items/1", 1);
+
+        assertThat(ifNoneMatch, contains(nullValue(), equalTo("\"1\"")));
+        assertThat(revalidated.status(), equalTo(HttpStatus.OK));
+        assertThat(revalidated.body(), equalTo("{\"user\":1}"));
+        assertThat(revalidated.headers().getETag(), equalTo("\"1\""));
+    }
+
+    @Test
+    void shouldReplaceStaleResponseWhenEtagChanges() throws Exception {
+        properties.setFreshFor(Duration.ZERO);
+        execute(HttpMethod.GET, "/items/1", 1);
+        etag = "\"2\"";
+
+        var changed = execute(HttpMethod.GET, "/items/1", 1);
+        var revalidated = execute(HttpMethod.GET, "/items/1", 1);
+
+        assertThat(ifNoneMatch, contains(nullValue(), equalTo("\"1\""), equalTo("\"2\"")));
+        assertThat(changed.headers().getETag(), equalTo("\"2\""));
+        assertThat(revalidated.headers().getETag(), equalTo("\"2\""));
+    }
+
+    @Test
+    void shouldPassNotModifiedToClientWithMatchingEtag() throws Exception {
+        execute(HttpMethod.GET, "/items/1", 1);
+        var client = new MockHttpServletRequest();
+        client.addHeader(HttpHeaders.IF_NONE_MATCH, "\"0\", \"1\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(client));
+
+        var reply = execute(HttpMethod.GET, "/items/1", 1);
+
+        assertThat(reply.status(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(reply.body(), emptyString());
+        assertThat(reply.headers().getETag(), equalTo("\"1\""));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void shouldReplyWithBodyToClientWithOtherEtag() throws Exception {
+        execute(HttpMethod.GET, "/items/1", 1);
+        var client = new MockHttpServletRequest();
+        client.addHeader(HttpHeaders.IF_NONE_MATCH, "\"0\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(client));
+
+        var reply = execute(HttpMethod.GET, "/items/1", 1);
+
+        assertThat(reply.status(), equalTo(HttpStatus.OK));
+        assertThat(reply.body(), equalTo("{\"user\":1}"));
+    }
+
+    @Test
+    void shouldInvalidatePathsFromServerHeader() throws Exception {
+        execute(HttpMethod.GET, "/items/1", 1);
+        execute(HttpMethod.GET, "/users/1", 1);
+        execute(HttpMethod.GET, "/requests/1", 1);
+        invalidate = List.of("/items/1", "/users/1");
+
+        var reply = execute(HttpMethod.POST, "/items/1/comment", 1);
+        execute(HttpMethod.GET, "/items/1", 1);
+        execute(HttpMethod.GET, "/users/1", 1);
+        execute(HttpMethod.GET, "/requests/1", 1);
+
+        assertThat(reply.headers().containsKey(ResponseCacheInterceptor.INVALIDATE_HEADER), equalTo(false));
+        assertThat(calls.get(), equalTo(6));
+    }
+}
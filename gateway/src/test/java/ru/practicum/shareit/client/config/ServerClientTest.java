@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.client.StubServer;
+import ru.practicum.shareit.error.ErrorHandler;
+
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.client.StubServer.respond;
+import static ru.practicum.shareit.client.StubServer.sleep;
+
+/**
+ * Общий пул соединений и таймауты маршрутов против сервера-заглушки: маршрут {@code users}
+ * ждёт ответа 200 мс, остальные — 2 с, в пуле одно соединение.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ServerClientTest {
+    private static final StubServer SERVER = new StubServer();
+    private static final CountDownLatch SLOW_REQUEST_STARTED = new CountDownLatch(1);
+    private final MockMvc mvc;
+    private final ServerRequestFactories requestFactories;
+    private final ErrorHandler errorHandler;
+
+    static {
+        SERVER.route("/users/1", exchange -> {
+            sleep(500);
+            respond(exchange, 200, Map.of("Content-Type", "application/json"), "{\"id\":1}");
+        });
+        SERVER.route("/items/1", exchange -> {
+            sleep(500);
+            respond(exchange, 200, Map.of("Content-Type", "application/json"), "{\"id\":1}");
+        });
+        SERVER.route("/items/2", exchange -> {
+            SLOW_REQUEST_STARTED.countDown();
+            sleep(1000);
+            respond(exchange, 200, Map.of("Content-Type", "application/json"), "{\"id\":2}");
+        });
+    }
+
+    @DynamicPropertySource
+    static void serverProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+        registry.add("shareit-server.client.max-connections", () -> "1");
+        registry.add("shareit-server.client.connection-request-timeout", () -> "200ms");
+        registry.add("shareit-server.client.response-timeout", () -> "2s");
+        registry.add("shareit-server.client.route-timeouts.users", () -> "200ms");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.close();
+    }
+
+    @Test
+    void shouldReplyGatewayTimeoutWhenRouteTimeoutExpires() throws Exception {
+        mvc.perform(get("/users/1"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error", startsWith("Server did not respond in time")));
+    }
+
+    @Test
+    void shouldWaitLongerOnRouteWithDefaultTimeout() throws Exception {
+        mvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}"));
+    }
+
+    @Test
+    void shouldReplyBadGatewayWhenPoolIsExhausted() throws Exception {
+        var slow = CompletableFuture.runAsync(() -> {
+            try {
+                mvc.perform(get("/items/2").header("X-Sharer-User-Id", 1)).andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(SLOW_REQUEST_STARTED.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        mvc.perform(get("/items/1").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.error", startsWith("Server is unavailable")));
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldReplyBadGatewayWhenConnectionIsRefused() throws Exception {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        var rest = new RestTemplate(requestFactories.forRoute("/users"));
+
+        var e = assertThrows(ResourceAccessException.class,
+                () -> rest.getForEntity("http://localhost:" + port + "/users/1", String.class));
+
+        assertThat(errorHandler.handle(e).getStatusCode(), equalTo(BAD_GATEWAY));
+    }
+}
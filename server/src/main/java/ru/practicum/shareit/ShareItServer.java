@@ -2,9 +2,10 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
-
+@ConfigurationPropertiesScan
 public class ShareItServer {
 
     public static void main(String[] args) {
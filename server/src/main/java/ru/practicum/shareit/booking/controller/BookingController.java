@@ -2,6 +2,7 @@
 package ru.practicum.shareit.booking.controller;
 
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -11,8 +12,15 @@ import ru.practicum.shareit.booking.enums.BookingTimeState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Cursor;
 
 import java.util.List;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.toSet;
+import static ru.practicum.shareit.utils.HttpCaching.invalidate;
+import static ru.practicum.shareit.utils.Pagination.TOTAL_COUNT_HEADER;
 
 @RestController
 @Slf4j
@@ -25,22 +33,52 @@ public class BookingController {
 
     @PostMapping()
     public BookingAllFieldsDto save(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                    @RequestBody BookingSavingDto bookingSavingDto) {
+                                    @RequestBody BookingSavingDto bookingSavingDto,
+                                    HttpServletResponse response) {
         log.debug("Received request to create booking with userId: {}, booking: {}", userId, bookingSavingDto);
 
         if (userId == null) {
             throw new ValidationException("User ID is required in header: " + HEADER_SHARER_USER_ID);
         }
 
-        var item = itemService.get(bookingSavingDto.getItemId(), userId);
-        return bookingService.save(bookingSavingDto, item, userId);
+        var item = itemService.getSummary(bookingSavingDto.getItemId());
+        var saved = bookingService.save(bookingSavingDto, item, userId);
+        invalidate(response, "/items/" + bookingSavingDto.getItemId());
+        return saved;
+    }
+
+    @PostMapping("/batch")
+    public List<BatchResultDto<BookingAllFieldsDto>> saveAll(
+            @RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+            @RequestBody List<BookingSavingDto> bookingSavingDtos,
+            HttpServletResponse response) {
+        log.debug("Received request to create {} bookings with userId: {}", bookingSavingDtos.size(), userId);
+
+        if (userId == null) {
+            throw new ValidationException("User ID is required in header: " + HEADER_SHARER_USER_ID);
+        }
+
+        var items = itemService.getSummaries(bookingSavingDtos.stream()
+                .map(BookingSavingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(toSet()));
+        var results = bookingService.saveAll(bookingSavingDtos, items, userId);
+        invalidate(response, "/items/", results.stream()
+                .map(BatchResultDto::getResult)
+                .filter(Objects::nonNull)
+                .map(booking -> booking.getItem().getId())
+                .collect(toSet()));
+        return results;
     }
 
     @PatchMapping("/{bookingId}")
     public BookingAllFieldsDto approve(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                        @RequestParam(required = false) boolean approved,
-                                       @PathVariable Long bookingId) {
-        return bookingService.approve(bookingId, approved, userId);
+                                       @PathVariable Long bookingId,
+                                       HttpServletResponse response) {
+        var booking = bookingService.approve(bookingId, approved, userId);
+        invalidate(response, "/items/" + booking.getItem().getId());
+        return booking;
     }
 
     @GetMapping("/owner")
@@ -48,7 +86,14 @@ public class BookingController {
             @RequestHeader(required = false, value = HEADER_SHARER_USER_ID) Long userId,
             @RequestParam(required = false) BookingTimeState state,
             @RequestParam(required = false) Integer from,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) boolean count,
+            HttpServletResponse response) {
+        if (count)
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(bookingService.countBookingsByOwnerId(userId, state)));
+        if (after != null)
+            return Cursor.write(bookingService.scrollBookingsByOwnerId(userId, state, after, size), response).getContent();
         return bookingService.getBookingsByOwnerId(userId, state, from, size);
     }
 
@@ -56,7 +101,14 @@ public class BookingController {
     public List<BookingAllFieldsDto> getBookings(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                                  @RequestParam(required = false) String state,
                                                  @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) boolean count,
+                                                 HttpServletResponse response) {
+        if (count)
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(bookingService.countBookings(userId, state)));
+        if (after != null)
+            return Cursor.write(bookingService.scrollBookings(userId, state, after, size), response).getContent();
         return bookingService.getAllBookings(userId, state, from, size);
     }
 
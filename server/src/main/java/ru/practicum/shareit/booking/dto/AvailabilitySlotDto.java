@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отрезок календаря вещи: свободна ли она с {@code start} до {@code end}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private Boolean available;
+}
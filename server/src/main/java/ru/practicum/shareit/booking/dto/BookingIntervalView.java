@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал бронирования без связанных сущностей — всё, что нужно для проверки пересечений.
+ */
+public interface BookingIntervalView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Краткая проекция бронирования вещи: только то, что нужно для lastBooking/nextBooking.
+ */
+public interface ItemBookingView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.interval;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.time.temporal.ChronoUnit.MICROS;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Подтверждённые бронирования по вещам в памяти: проверка пересечения за O(log n) без
+ * обращения к базе. Интервалы вещи загружаются из базы при первом обращении к ней.
+ * <p>
+ * Подтверждение резервирует интервал сразу, под блокировкой вещи, поэтому два
+ * одновременных подтверждения пересекающихся броней не пройдут оба; при откате транзакции
+ * резерв снимается, ещё под этой блокировкой. Между экземплярами сервера то же самое
+ * гарантирует ограничение {@code ex_bookings_approved_overlap} в PostgreSQL.
+ * <p>
+ * Брони, удалённые каскадом вместе с вещью или пользователем, сервисы убирают через {@link #evict}.
+ * Подтверждения на других экземплярах сюда не попадают: загруженные интервалы вещи живут не дольше
+ * срока, переданного в {@link #prune}, и потом перечитываются из базы.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private final BookingRepository bookingRepository;
+    private final ItemLocks itemLocks;
+    private final Map<Long, Loaded> items = new ConcurrentHashMap<>();
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        var intervals = intervals(itemId);
+        synchronized (intervals) {
+            return intervals.overlaps(micros(start), micros(end));
+        }
+    }
+
+    /**
+     * Занимает интервал за бронированием, если он свободен.
+     *
+     * @return {@code false}, если интервал пересекается с уже подтверждённым бронированием
+     */
+    public boolean reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        var intervals = intervals(itemId);
+        synchronized (intervals) {
+            intervals.prune(cutoff());
+            if (!intervals.add(bookingId, micros(start), micros(end))) return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                /**
+                 * Резерв снимается до того, как отпущен замок вещи: иначе следующее подтверждение
+                 * увидит уже откаченный резерв и получит ложный конфликт.
+                 */
+                @Override
+                public int getOrder() {
+                    return ItemLocks.UNLOCK_ORDER - 1;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) release(intervals, bookingId, start);
+                }
+            });
+        return true;
+    }
+
+    /**
+     * Календарь вещи на [from, to): чередующиеся свободные и занятые отрезки без промежутков.
+     * Занятыми считаются только подтверждённые брони.
+     */
+    public List<AvailabilitySlotDto> timeline(Long itemId, LocalDateTime from, LocalDateTime to) {
+        var intervals = intervals(itemId);
+        long[] busy;
+        synchronized (intervals) {
+            busy = intervals.busy(micros(from), micros(to));
+        }
+        var slots = new ArrayList<AvailabilitySlotDto>(busy.length + 1);
+        var free = micros(from);
+        for (var i = 0; i < busy.length; i += 2) {
+            if (busy[i] > free) slots.add(new AvailabilitySlotDto(time(free), time(busy[i]), true));
+            slots.add(new AvailabilitySlotDto(time(busy[i]), time(busy[i + 1]), false));
+            free = busy[i + 1];
+        }
+        if (free < micros(to)) slots.add(new AvailabilitySlotDto(time(free), to, true));
+        return slots;
+    }
+
+    /**
+     * Забывает брони, закончившиеся до начала сегодняшнего дня, вещи, у которых броней не осталось,
+     * и вещи, загруженные раньше {@code ttl} назад: без этого в памяти копилась бы вся история броней,
+     * а подтверждения на других экземплярах не были бы видны. Вещь удаляется только под её замком —
+     * занятый замок значит, что идёт подтверждение и в наборе может появиться резерв.
+     *
+     * @return сколько вещей удалено из памяти
+     */
+    public int prune(Duration ttl) {
+        var cutoff = cutoff();
+        var loadedBefore = System.nanoTime() - ttl.toNanos();
+        var removed = 0;
+        for (var entry : items.entrySet()) {
+            var loaded = entry.getValue();
+            var intervals = loaded.intervals();
+            var expired = loaded.at() - loadedBefore <= 0;
+            synchronized (intervals) {
+                intervals.prune(cutoff);
+                if (intervals.size() > 0 && !expired) continue;
+            }
+            var lock = itemLocks.stripe(entry.getKey());
+            if (!lock.tryLock()) continue;
+            try {
+                synchronized (intervals) {
+                    if ((intervals.size() == 0 || expired) && items.remove(entry.getKey(), loaded)) removed++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Забывает интервалы вещей, чтобы при следующем обращении они загрузились из базы заново:
+     * брони удаляются каскадом вместе с вещью или пользователем, мимо индекса. В транзакции вещи
+     * забываются после коммита, иначе их успели бы перечитать ещё с удаляемыми бронями. Каждая
+     * вещь удаляется под своим замком, чтобы не потерять резерв идущего подтверждения.
+     */
+    public void evict(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemIds.forEach(this::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemIds.forEach(BookingIntervalIndex.this::evict);
+            }
+        });
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    private void release(IntervalSet intervals, Long bookingId, LocalDateTime start) {
+        synchronized (intervals) {
+            intervals.remove(bookingId, micros(start));
+        }
+    }
+
+    private void evict(Long itemId) {
+        var lock = itemLocks.stripe(itemId);
+        lock.lock();
+        try {
+            items.remove(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IntervalSet intervals(Long itemId) {
+        var current = items.get(itemId);
+        if (current != null) return current.intervals();
+        var loaded = new Loaded(new IntervalSet(), System.nanoTime());
+        bookingRepository.findByItem_IdIsAndStatusIs(itemId, APPROVED).forEach(booking ->
+                loaded.intervals().add(booking.getId(), micros(booking.getStart()), micros(booking.getEnd())));
+        var previous = items.putIfAbsent(itemId, loaded);
+        return (previous != null ? previous : loaded).intervals();
+    }
+
+    private static long cutoff() {
+        return micros(LocalDate.now().atStartOfDay());
+    }
+
+    static long micros(LocalDateTime time) {
+        return MICROS.between(EPOCH, time);
+    }
+
+    static LocalDateTime time(long micros) {
+        return EPOCH.plus(micros, MICROS);
+    }
+
+    /**
+     * Интервалы вещи и момент их загрузки из базы по {@link System#nanoTime()}.
+     */
+    private record Loaded(IntervalSet intervals, long at) {
+    }
+}
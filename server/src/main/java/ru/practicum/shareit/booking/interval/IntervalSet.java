@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.util.Arrays;
+
+/**
+ * Непересекающиеся полуинтервалы [start, end) одной вещи, упорядоченные по началу.
+ * Раз интервалы не пересекаются, концы тоже возрастают, поэтому для проверки пересечения
+ * достаточно бинарным поиском найти последний интервал, начавшийся раньше конца нового.
+ * Хранятся в примитивных массивах; пустые интервалы ни с чем не пересекаются и не хранятся.
+ */
+class IntervalSet {
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private long[] ids = new long[4];
+    private int size;
+
+    boolean overlaps(long start, long end) {
+        if (start >= end) return false;
+        var index = countStartingBefore(end) - 1;
+        return index >= 0 && ends[index] > start;
+    }
+
+    boolean add(long id, long start, long end) {
+        if (start >= end) return true;
+        if (overlaps(start, end)) return false;
+        var index = countStartingBefore(end);
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(ends, index, ends, index + 1, size - index);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        starts[index] = start;
+        ends[index] = end;
+        ids[index] = id;
+        size++;
+        return true;
+    }
+
+    void remove(long id, long start) {
+        var index = Arrays.binarySearch(starts, 0, size, start);
+        if (index < 0 || ids[index] != id) return;
+        delete(index, 1);
+    }
+
+    /**
+     * Забывает интервалы, закончившиеся не позже {@code time}: новые брони с ними уже не пересекутся.
+     */
+    void prune(long time) {
+        var index = Arrays.binarySearch(ends, 0, size, time);
+        var count = index >= 0 ? index + 1 : -index - 1;
+        if (count > 0) delete(0, count);
+    }
+
+    /**
+     * Интервалы, пересекающие [from, to), обрезанные по его границам: пары начало–конец подряд.
+     */
+    long[] busy(long from, long to) {
+        if (from >= to) return new long[0];
+        var first = Arrays.binarySearch(ends, 0, size, from);
+        first = first >= 0 ? first + 1 : -first - 1;
+        var last = countStartingBefore(to);
+        if (first >= last) return new long[0];
+        var busy = new long[(last - first) * 2];
+        for (var i = first; i < last; i++) {
+            busy[(i - first) * 2] = Math.max(starts[i], from);
+            busy[(i - first) * 2 + 1] = Math.min(ends[i], to);
+        }
+        return busy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int countStartingBefore(long time) {
+        var index = Arrays.binarySearch(starts, 0, size, time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void delete(int index, int count) {
+        System.arraycopy(starts, index + count, starts, index, size - index - count);
+        System.arraycopy(ends, index + count, ends, index, size - index - count);
+        System.arraycopy(ids, index + count, ids, index, size - index - count);
+        size -= count;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.interval;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки вещей для бронирования: фиксированный набор замков, вещь попадает в один из них
+ * по id. Замок держится до конца транзакции, поэтому проверка, резерв интервала и коммит
+ * по одной вещи идут строго друг за другом, а брони разных вещей почти не ждут друг друга.
+ * <p>
+ * Работает в пределах одного экземпляра сервера; между экземплярами двойное одобрение
+ * не даёт пройти версия вещи ({@code @Version}).
+ * <p>
+ * Замок отпускается последней из синхронизаций транзакции ({@value UNLOCK_ORDER}): всё, что
+ * после завершения транзакции нужно сделать под замком, например снять резерв интервала,
+ * регистрируется с меньшим порядком, и следующий владелец замка уже видит результат.
+ */
+@Component
+public class ItemLocks {
+    public static final int UNLOCK_ORDER = Ordered.LOWEST_PRECEDENCE;
+    static final int STRIPES = 64;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public ItemLocks() {
+        for (var i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    /**
+     * Захватывает замок вещи до завершения текущей транзакции.
+     *
+     * @throws IllegalStateException если транзакции нет — отпустить замок было бы некому
+     */
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Блокировка вещи вне транзакции: " + itemId);
+        var lock = stripe(itemId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return UNLOCK_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Захватывает замки нескольких вещей до завершения текущей транзакции. Замки берутся
+     * в порядке номеров, поэтому два пакета с общими вещами не ждут друг друга по кругу.
+     *
+     * @throws IllegalStateException если транзакции нет — отпустить замки было бы некому
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("Блокировка вещей вне транзакции: " + itemIds);
+        var stripes = itemIds.stream()
+                .mapToInt(ItemLocks::index)
+                .distinct()
+                .sorted()
+                .mapToObj(index -> locks[index])
+                .toList();
+        stripes.forEach(ReentrantLock::lock);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return UNLOCK_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                stripes.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    ReentrantLock stripe(Long itemId) {
+        return locks[index(itemId)];
+    }
+
+    private static int index(Long itemId) {
+        var hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
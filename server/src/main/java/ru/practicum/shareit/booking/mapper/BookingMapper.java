@@ -2,9 +2,13 @@ package ru.practicum.shareit.booking.mapper;
 
 
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
 
@@ -27,4 +31,34 @@ public class BookingMapper {
                 .status(booking.getStatus().name())
                 .build();
     }
+
+    /**
+     * Для только что сохранённой брони: вещь и бронирующий уже известны, поэтому ссылки на них
+     * в самой брони не читаются и не загружаются из базы.
+     */
+    public static BookingAllFieldsDto mapToBookingAllFieldsDto(Booking booking, ItemDto item, UserDto booker) {
+        return BookingAllFieldsDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(ItemDto.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .description(item.getDescription())
+                        .available(item.getAvailable())
+                        .ownerId(item.getOwnerId())
+                        .requestId(item.getRequestId())
+                        .build())
+                .booker(booker)
+                .status(booking.getStatus().name())
+                .build();
+    }
+
+    public static BookingDto mapToBookingDto(BookingAllFieldsDto booking) {
+        return booking != null ? new BookingDto(booking.getId(), booking.getBooker().getId()) : null;
+    }
+
+    public static BookingDto mapToBookingDto(ItemBookingView booking) {
+        return new BookingDto(booking.getId(), booking.getBookerId());
+    }
 }
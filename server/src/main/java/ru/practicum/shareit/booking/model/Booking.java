@@ -10,14 +10,33 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("booker")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "request", subgraph = "request")
+                }),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester"))
+        })
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
+    /**
+     * Бронирование вместе со всем, что попадает в ответ: вещь, её владелец и запрос, автор брони.
+     * Загружается одним запросом вместо цепочки догрузок по каждой связи.
+     */
+    public static final String DETAILS_GRAPH = "Booking.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -26,15 +45,18 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingState status;
+
+    @Version
+    private Long version;
 }
@@ -1,93 +1,233 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
+    String lastByItemIdsQuery = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.booker_id AS bookerId " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.end_date < :now) ranked " +
+            "WHERE ranked.rn = 1";
+
+    String nextByItemIdsQuery = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.booker_id AS bookerId " +
+            "FROM (SELECT b.id, b.item_id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date, b.id) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.start_date > :now) ranked " +
+            "WHERE ranked.rn = 1";
+
+    @Override
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @Query(value = lastByItemIdsQuery, nativeQuery = true)
+    List<ItemBookingView> findLastByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    @Query(value = nextByItemIdsQuery, nativeQuery = true)
+    List<ItemBookingView> findNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId,
                                                                                      LocalDateTime startDateTime,
                                                                                      LocalDateTime endDateTime);
 
-    Page<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner,
-                                                                                     LocalDateTime startDateTime,
-                                                                                     LocalDateTime endDateTime,
-                                                                                     Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId,
+                                                                                      LocalDateTime startDateTime,
+                                                                                      LocalDateTime endDateTime,
+                                                                                      Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId,
+                                                                                       LocalDateTime startDateTime,
+                                                                                       LocalDateTime endDateTime,
+                                                                                       ScrollPosition position,
+                                                                                       Limit limit);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(Long ownerId,
                                                                        LocalDateTime localDateTime);
 
-    Page<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner,
-                                                                       LocalDateTime localDateTime,
-                                                                       Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(Long ownerId,
+                                                                        LocalDateTime localDateTime,
+                                                                        Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(Long ownerId,
+                                                                         LocalDateTime localDateTime,
+                                                                         ScrollPosition position,
+                                                                         Limit limit);
 
-    List<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(Long ownerId,
                                                                       LocalDateTime localDateTime);
 
-    Page<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner,
-                                                                      LocalDateTime localDateTime,
-                                                                      Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(Long ownerId,
+                                                                       LocalDateTime localDateTime,
+                                                                       Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(Long ownerId,
+                                                                        LocalDateTime localDateTime,
+                                                                        ScrollPosition position,
+                                                                        Limit limit);
 
-    List<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookingsByItem_Owner_IdIsAndStatusIsOrderByStartDesc(Long ownerId,
                                                                        BookingState bookingState);
 
-    Page<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner,
-                                                                       BookingState bookingState,
-                                                                       Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByItem_Owner_IdIsAndStatusIsOrderByStartDesc(Long ownerId,
+                                                                        BookingState bookingState,
+                                                                        Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByItem_Owner_IdIsAndStatusIsOrderByStartDesc(Long ownerId,
+                                                                         BookingState bookingState,
+                                                                         ScrollPosition position,
+                                                                         Limit limit);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Long itemId,
                                                                       Long userId);
 
-    Page<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner,
-                                                            Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByItem_Owner_IdIsOrderByStartDesc(Long ownerId,
+                                                             Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByItem_Owner_IdIsOrderByStartDesc(Long ownerId,
+                                                              ScrollPosition position,
+                                                              Limit limit);
 
-    List<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    List<Booking> findBookingsByItem_Owner_IdIsOrderByStartDesc(Long ownerId);
 
     //for booker
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
                                                                                   LocalDateTime startDateTime,
                                                                                   LocalDateTime endDateTime);
 
-    Page<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
-                                                                                  LocalDateTime startDateTime,
-                                                                                  LocalDateTime endDateTime,
-                                                                                  Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
+                                                                                   LocalDateTime startDateTime,
+                                                                                   LocalDateTime endDateTime,
+                                                                                   Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker,
+                                                                                    LocalDateTime startDateTime,
+                                                                                    LocalDateTime endDateTime,
+                                                                                    ScrollPosition position,
+                                                                                    Limit limit);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
                                                                         LocalDateTime localDateTime);
 
-    Page<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
-                                                                        LocalDateTime localDateTime,
-                                                                        Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
+                                                                         LocalDateTime localDateTime,
+                                                                         Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker,
+                                                                          LocalDateTime localDateTime,
+                                                                          ScrollPosition position,
+                                                                          Limit limit);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
                                                                      LocalDateTime localDateTime);
 
-    Page<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
-                                                                     LocalDateTime localDateTime,
-                                                                     Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
+                                                                      LocalDateTime localDateTime,
+                                                                      Pageable pageable);
 
-    List<Booking> findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(Long itemId,
-                                                                  BookingState bookingState,
-                                                                  LocalDateTime localDateTime);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker,
+                                                                       LocalDateTime localDateTime,
+                                                                       ScrollPosition position,
+                                                                       Limit limit);
+
+    List<BookingIntervalView> findByItem_IdIsAndStatusIs(Long itemId, BookingState bookingState);
+
+    @Query("SELECT DISTINCT booking.item.id FROM Booking booking " +
+            "WHERE booking.booker.id = :bookerId AND booking.status = :status")
+    List<Long> findItemIdsByBookerAndStatus(@Param("bookerId") Long bookerId, @Param("status") BookingState status);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
                                                                     BookingState bookingState);
 
-    Page<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
-                                                                    BookingState bookingState,
-                                                                    Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
+                                                                     BookingState bookingState,
+                                                                     Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker,
+                                                                      BookingState bookingState,
+                                                                      ScrollPosition position,
+                                                                      Limit limit);
 
-    Page<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
-                                                         Pageable pageable);
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Slice<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
+                                                          Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    Window<Booking> findBookingsByBookerIsOrderByStartDesc(User booker,
+                                                           ScrollPosition position,
+                                                           Limit limit);
+
+    @EntityGraph(Booking.DETAILS_GRAPH)
     List<Booking> findBookingsByBookerIsOrderByStartDesc(User booker);
+
+    long countBookingsByItem_Owner_IdIs(Long ownerId);
+
+    long countBookingsByItem_Owner_IdAndEndBefore(Long ownerId, LocalDateTime localDateTime);
+
+    long countBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfter(Long ownerId,
+                                                            LocalDateTime startDateTime,
+                                                            LocalDateTime endDateTime);
+
+    long countBookingsByItem_Owner_IdAndStartAfter(Long ownerId, LocalDateTime localDateTime);
+
+    long countBookingsByBookerIs(User booker);
+
+    long countBookingsByBookerIsAndEndBefore(User booker, LocalDateTime localDateTime);
+
+    long countBookingsByBookerIsAndStartBeforeAndEndAfter(User booker,
+                                                         LocalDateTime startDateTime,
+                                                         LocalDateTime endDateTime);
+
+    long countBookingsByBookerIsAndStartIsAfter(User booker, LocalDateTime localDateTime);
+
+    long countBookingsByBookerIsAndStatusIs(User booker, BookingState bookingState);
 }
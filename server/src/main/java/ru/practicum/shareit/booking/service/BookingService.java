@@ -1,26 +1,54 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
-import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.BatchResultDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
 
     List<BookingAllFieldsDto> getAllBookings(Long bookerId, String state, Integer from, Integer size);
 
-    BookingAllFieldsDto save(BookingSavingDto booking, ItemAllFieldsDto itemDto, Long bookerId);
+    BookingAllFieldsDto save(BookingSavingDto booking, ItemDto itemDto, Long bookerId);
+
+    /**
+     * Пакет броней одного пользователя; {@code items} — вещи пакета по id.
+     */
+    List<BatchResultDto<BookingAllFieldsDto>> saveAll(List<BookingSavingDto> bookings,
+                                                      Map<Long, ItemDto> items,
+                                                      Long bookerId);
 
     BookingAllFieldsDto approve(Long bookingId, boolean approved, Long userId);
 
     List<BookingAllFieldsDto> getBookingsByOwnerId(Long userId, BookingTimeState state, Integer from, Integer size);
 
+    Window<BookingAllFieldsDto> scrollBookings(Long bookerId, String state, String after, Integer size);
+
+    Window<BookingAllFieldsDto> scrollBookingsByOwnerId(Long userId, BookingTimeState state, String after, Integer size);
+
+    long countBookings(Long bookerId, String state);
+
+    long countBookingsByOwnerId(Long userId, BookingTimeState state);
+
 
     List<BookingAllFieldsDto> getBookingsByItem(Long itemId, Long userId);
 
+    Map<Long, BookingDto> getLastBookings(Collection<Long> itemIds);
+
+    Map<Long, BookingDto> getNextBookings(Collection<Long> itemIds);
+
+    List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<BookingAllFieldsDto> getAllBookings(Long bookerId, String state);
 
     BookingAllFieldsDto getBookingById(Long bookingId, Long userId);
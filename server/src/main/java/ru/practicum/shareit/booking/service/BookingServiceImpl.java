@@ -3,34 +3,54 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.interval.ItemLocks;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
-import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.References;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.time.LocalDateTime.now;
+import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static ru.practicum.shareit.booking.enums.BookingState.*;
 import static ru.practicum.shareit.booking.enums.BookingTimeState.*;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBooking;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.mapToBookingAllFieldsDto;
-import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItem;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
+import static ru.practicum.shareit.utils.Pagination.makeLimit;
 import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 
 
@@ -39,8 +59,23 @@ import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final Map<String, Class<?>> CURSOR_KEYS = Map.of("start", LocalDateTime.class, "id", Long.class);
     private final BookingRepository bookingRepository;
     private final UserService userService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLocks itemLocks;
+    private final ItemRepository itemRepository;
+    private final References references;
+
+    private void validate(BookingSavingDto bookingSavingDto, ItemDto itemDto, Long bookerId) {
+        if (itemDto.getOwnerId().equals(bookerId))
+            throw new NotFoundException("Вещь#" + itemDto.getId() + " не может быть забронирована владельцем");
+        if (!itemDto.getAvailable()) {
+            log.warn("Attempt to book unavailable item with id: {}", itemDto.getId());
+            throw new IllegalStateException("Unexpected error during booking");
+        }
+        validate(bookingSavingDto);
+    }
 
     private void validate(BookingSavingDto bookingSavingDto) {
 
@@ -65,29 +100,64 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
-    public BookingAllFieldsDto save(BookingSavingDto bookingSavingDto, ItemAllFieldsDto itemDto, Long bookerId) {
-        if (itemDto.getOwnerId().equals(bookerId))
-            throw new NotFoundException("Вещь#" + itemDto.getId() + " не может быть забронирована владельцем");
-        if (!itemDto.getAvailable()) {
-            log.warn("Attempt to book unavailable item with id: {}", itemDto.getId());
-            throw new IllegalStateException("Unexpected error during booking");
+    public BookingAllFieldsDto save(BookingSavingDto bookingSavingDto, ItemDto itemDto, Long bookerId) {
+        validate(bookingSavingDto, itemDto, bookerId);
+        var booker = userService.get(bookerId);
+        itemLocks.lockUntilCompletion(itemDto.getId());
+        var savedBooking = bookingRepository.save(newBooking(bookingSavingDto, itemDto, bookerId));
+        itemRepository.refreshBookingPointers(List.of(itemDto.getId()), now());
+        return mapToBookingAllFieldsDto(savedBooking, itemDto, booker);
+    }
+
+    /**
+     * Брони проверяются по одной, как в {@link #save}; замки всех вещей пакета берутся заранее,
+     * корректные брони вставляются пакетами JDBC, а указатели броней вещей пересчитываются
+     * одним запросом.
+     */
+    @Override
+    @Transactional
+    public List<BatchResultDto<BookingAllFieldsDto>> saveAll(List<BookingSavingDto> bookingSavingDtos,
+                                                             Map<Long, ItemDto> items,
+                                                             Long bookerId) {
+        var booker = userService.get(bookerId);
+        itemLocks.lockAllUntilCompletion(items.keySet());
+        var results = new ArrayList<BatchResultDto<BookingAllFieldsDto>>(bookingSavingDtos.size());
+        var bookings = new LinkedHashMap<Integer, Booking>();
+        for (var i = 0; i < bookingSavingDtos.size(); i++) {
+            var bookingSavingDto = bookingSavingDtos.get(i);
+            try {
+                var itemDto = items.get(bookingSavingDto.getItemId());
+                if (itemDto == null)
+                    throw new NotFoundException("Вещь с id#" + bookingSavingDto.getItemId() + " не существует");
+                validate(bookingSavingDto, itemDto, bookerId);
+                bookings.put(i, newBooking(bookingSavingDto, itemDto, bookerId));
+                results.add(null);
+            } catch (NotFoundException | ValidationException | IllegalStateException e) {
+                results.add(BatchResultDto.failed(i, e));
+            }
         }
-        validate(bookingSavingDto);
+        if (bookings.isEmpty()) return results;
+        bookingRepository.saveAllAndFlush(bookings.values());
+        var itemIds = bookings.values().stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(toSet());
+        itemRepository.refreshBookingPointers(itemIds, now());
+        bookings.forEach((index, booking) -> results.set(index, BatchResultDto.saved(index,
+                mapToBookingAllFieldsDto(booking, items.get(booking.getItem().getId()), booker))));
+        return results;
+    }
 
-        var booker = mapToUser(userService.get(bookerId));
-        var item = mapToItem(itemDto);
-        var bookings = bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(
-                item.getId(),
-                APPROVED,
-                bookingSavingDto.getStart());
-        if (!bookings.isEmpty())
-            throw new NotFoundException("Эта вещь не может быть забронирована: " + item.getName());
+    /**
+     * Новая бронь вещи; вызывать под замком вещи, иначе проверка пересечений ничего не гарантирует.
+     */
+    private Booking newBooking(BookingSavingDto bookingSavingDto, ItemDto itemDto, Long bookerId) {
+        if (bookingIntervalIndex.overlaps(itemDto.getId(), bookingSavingDto.getStart(), bookingSavingDto.getEnd()))
+            throw new NotFoundException("Эта вещь не может быть забронирована: " + itemDto.getName());
         var booking = mapToBooking(bookingSavingDto);
         booking.setStatus(WAITING);
-        booking.setBooker(booker);
-        booking.setItem(item);
-        var savedBooking = bookingRepository.save(booking);
-        return mapToBookingAllFieldsDto(savedBooking);
+        booking.setBooker(references.user(bookerId));
+        booking.setItem(references.item(itemDto.getId()));
+        return booking;
     }
 
     @Override
@@ -100,9 +170,19 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(userId)
                 || !booking.getStatus().equals(WAITING))
             throw new ValidationException("Статус бронирования не может быть обновлен");
+        var itemId = booking.getItem().getId();
+        itemLocks.lockUntilCompletion(itemId);
+        if (approved && (itemRepository.incrementVersion(itemId, booking.getItem().getVersion()) == 0
+                || !bookingIntervalIndex.reserve(itemId, booking.getId(), booking.getStart(), booking.getEnd())))
+            throw new ConflictException("Вещь уже забронирована на это время: " + booking.getItem().getName());
         booking.setStatus(approved ? APPROVED : REJECTED);
-        var savedBooking = bookingRepository.save(booking);
-        return mapToBookingAllFieldsDto(savedBooking);
+        try {
+            var savedBooking = bookingRepository.save(booking);
+            bookingRepository.flush();
+            return mapToBookingAllFieldsDto(savedBooking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Вещь уже забронирована на это время: " + booking.getItem().getName());
+        }
     }
 
     @Override
@@ -125,6 +205,27 @@ public class BookingServiceImpl implements BookingService {
                 .collect(toList());
     }
 
+    @Override
+    public Map<Long, BookingDto> getLastBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return emptyMap();
+        return bookingRepository.findLastByItemIds(itemIds, now())
+                .stream()
+                .collect(toMap(ItemBookingView::getItemId, BookingMapper::mapToBookingDto));
+    }
+
+    @Override
+    public Map<Long, BookingDto> getNextBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return emptyMap();
+        return bookingRepository.findNextByItemIds(itemIds, now())
+                .stream()
+                .collect(toMap(ItemBookingView::getItemId, BookingMapper::mapToBookingDto));
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return bookingIntervalIndex.timeline(itemId, from, to);
+    }
+
     @Override
     public List<BookingAllFieldsDto> getAllBookings(Long bookerId, String state) {
         Stream<Booking> stream = null;
@@ -228,25 +329,25 @@ public class BookingServiceImpl implements BookingService {
                 ? makePageRequest(from, size, Sort.by("start").descending())
                 : null;
 
-        var user = mapToUser(userService.get(userId));
+        userService.get(userId);
         Stream<Booking> stream;
 
         if (state == null || state == BookingTimeState.ALL) {
             stream = pageRequest == null
-                    ? bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(user).stream()
-                    : bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(user, pageRequest).stream();
+                    ? bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(userId).stream()
+                    : bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(userId, pageRequest).stream();
         } else if (state == BookingTimeState.PAST) {
             stream = pageRequest == null
-                    ? bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, now()).stream()
-                    : bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(user, now(), pageRequest).stream();
+                    ? bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(userId, now()).stream()
+                    : bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(userId, now(), pageRequest).stream();
         } else if (state == BookingTimeState.CURRENT) {
             stream = pageRequest == null
-                    ? bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, now(), now()).stream()
-                    : bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, now(), now(), pageRequest).stream();
+                    ? bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(userId, now(), now()).stream()
+                    : bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(userId, now(), now(), pageRequest).stream();
         } else if (state == BookingTimeState.FUTURE) {
             stream = pageRequest == null
-                    ? bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now()).stream()
-                    : bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(user, now(), pageRequest).stream();
+                    ? bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(userId, now()).stream()
+                    : bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(userId, now(), pageRequest).stream();
         } else {
             throw new ValidationException("Неизвестный статус: " + state);
         }
@@ -256,5 +357,79 @@ public class BookingServiceImpl implements BookingService {
                 .collect(toList());
     }
 
+    @Override
+    public Window<BookingAllFieldsDto> scrollBookings(Long bookerId, String state, String after, Integer size) {
+        var position = Cursor.decode(after, CURSOR_KEYS);
+        var limit = makeLimit(size);
+        var user = mapToUser(userService.get(bookerId));
+        Window<Booking> window;
+
+        if (state == null || ALL.name().equals(state)) {
+            window = bookingRepository.findBookingsByBookerIsOrderByStartDesc(user, position, limit);
+        } else if (PAST.name().equals(state)) {
+            window = bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, now(), position, limit);
+        } else if (CURRENT.name().equals(state)) {
+            window = bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(user, now(), now(), position, limit);
+        } else if (FUTURE.name().equals(state)) {
+            window = bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, now(), position, limit);
+        } else if (Arrays.stream(BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
+            window = bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, BookingState.valueOf(state), position, limit);
+        } else {
+            throw new ValidationException("Неизвестный статус: " + state);
+        }
+
+        return window.map(BookingMapper::mapToBookingAllFieldsDto);
+    }
+
+    @Override
+    public Window<BookingAllFieldsDto> scrollBookingsByOwnerId(Long userId, BookingTimeState state, String after, Integer size) {
+        var position = Cursor.decode(after, CURSOR_KEYS);
+        var limit = makeLimit(size);
+        userService.get(userId);
+        Window<Booking> window;
 
-}
\ No newline at end of file
+        if (state == null || state == BookingTimeState.ALL) {
+            window = bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(userId, position, limit);
+        } else if (state == BookingTimeState.PAST) {
+            window = bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(userId, now(), position, limit);
+        } else if (state == BookingTimeState.CURRENT) {
+            window = bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(userId, now(), now(), position, limit);
+        } else if (state == BookingTimeState.FUTURE) {
+            window = bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(userId, now(), position, limit);
+        } else {
+            throw new ValidationException("Неизвестный статус: " + state);
+        }
+
+        return window.map(BookingMapper::mapToBookingAllFieldsDto);
+    }
+
+    @Override
+    public long countBookings(Long bookerId, String state) {
+        var user = mapToUser(userService.get(bookerId));
+        if (state == null || ALL.name().equals(state))
+            return bookingRepository.countBookingsByBookerIs(user);
+        if (PAST.name().equals(state))
+            return bookingRepository.countBookingsByBookerIsAndEndBefore(user, now());
+        if (CURRENT.name().equals(state))
+            return bookingRepository.countBookingsByBookerIsAndStartBeforeAndEndAfter(user, now(), now());
+        if (FUTURE.name().equals(state))
+            return bookingRepository.countBookingsByBookerIsAndStartIsAfter(user, now());
+        if (Arrays.stream(BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state)))
+            return bookingRepository.countBookingsByBookerIsAndStatusIs(user, BookingState.valueOf(state));
+        throw new ValidationException("Неизвестный статус: " + state);
+    }
+
+    @Override
+    public long countBookingsByOwnerId(Long userId, BookingTimeState state) {
+        userService.get(userId);
+        if (state == null || state == BookingTimeState.ALL)
+            return bookingRepository.countBookingsByItem_Owner_IdIs(userId);
+        if (state == BookingTimeState.PAST)
+            return bookingRepository.countBookingsByItem_Owner_IdAndEndBefore(userId, now());
+        if (state == BookingTimeState.CURRENT)
+            return bookingRepository.countBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfter(userId, now(), now());
+        if (state == BookingTimeState.FUTURE)
+            return bookingRepository.countBookingsByItem_Owner_IdAndStartAfter(userId, now());
+        throw new ValidationException("Неизвестный статус: " + state);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.error;
 
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -11,6 +12,18 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @Slf4j
 public class ErrorHandler {
 
+    /**
+     * Код ответа, который вернули бы обработчики ниже, — для пакетных запросов,
+     * где ошибка каждого элемента возвращается в теле.
+     */
+    public static HttpStatus statusOf(RuntimeException e) {
+        if (e instanceof NotFoundException) return HttpStatus.NOT_FOUND;
+        if (e instanceof ValidationException) return HttpStatus.BAD_REQUEST;
+        if (e instanceof EmailException || e instanceof ConflictException
+                || e instanceof OptimisticLockingFailureException) return HttpStatus.CONFLICT;
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFound(final NotFoundException e) {
@@ -29,6 +42,19 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(final ConflictException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentUpdate(final OptimisticLockingFailureException e) {
+        log.warn("Concurrent update: {}", e.getMessage());
+        return new ErrorResponse("Данные изменены другим запросом, повторите попытку");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleInternalServerError(final Throwable e) {
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки фоновых задач, поддерживающих указатели последней и ближайшей брони вещей.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking-pointers")
+public class BookingPointersProperties {
+    /**
+     * Запускать ли задачи по расписанию; пересчёт при создании брони работает всегда.
+     */
+    private boolean schedulingEnabled = true;
+    /**
+     * Пауза между проходами, пересчитывающими устаревшие указатели.
+     */
+    private Duration rollDelay = Duration.ofMinutes(1);
+    /**
+     * Расписание сверки указателей с таблицей bookings.
+     */
+    private String checkCron = "0 30 3 * * *";
+    /**
+     * Сколько вещей обрабатывается одним запросом.
+     */
+    private int batchSize = 500;
+    /**
+     * Сколько живут в памяти подтверждённые брони вещи до повторной загрузки из базы:
+     * за это время становятся видны подтверждения на других экземплярах сервера.
+     */
+    private Duration intervalsTtl = Duration.ofMinutes(5);
+}
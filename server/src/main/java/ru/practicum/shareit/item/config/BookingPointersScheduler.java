@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.config;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.item.service.ItemBookingPointers;
+
+/**
+ * Расписание для указателей броней: частый пересчёт устаревших и ночная сверка всех.
+ * Вместе с пересчётом из памяти убираются закончившиеся подтверждённые брони и устаревшие интервалы вещей.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.booking-pointers", name = "scheduling-enabled", matchIfMissing = true)
+public class BookingPointersScheduler {
+    private final ItemBookingPointers itemBookingPointers;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingPointersProperties properties;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.roll-delay:PT1M}")
+    public void roll() {
+        var rolled = itemBookingPointers.roll();
+        if (rolled > 0) log.debug("Booking pointers rolled for {} items", rolled);
+        var pruned = bookingIntervalIndex.prune(properties.getIntervalsTtl());
+        if (pruned > 0) log.debug("Booking intervals dropped for {} items", pruned);
+    }
+
+    @Scheduled(cron = "${shareit.booking-pointers.check-cron:0 30 3 * * *}")
+    public void check() {
+        var repaired = itemBookingPointers.check();
+        log.info("Booking pointers checked, {} items repaired", repaired);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Настройки выдачи комментариев в списке вещей владельца.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.comments")
+public class CommentProperties {
+    /**
+     * Максимальное количество комментариев, загружаемых для одной вещи.
+     */
+    private int perItemLimit = 100;
+    /**
+     * Порядок комментариев по дате создания.
+     */
+    private Sort.Direction order = Sort.Direction.ASC;
+}
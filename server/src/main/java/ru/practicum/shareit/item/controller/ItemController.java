@@ -1,14 +1,26 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Cursor;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.toSet;
+import static ru.practicum.shareit.utils.HttpCaching.invalidate;
+import static ru.practicum.shareit.utils.Pagination.TOTAL_COUNT_HEADER;
 
 
 @RestController
@@ -21,27 +33,64 @@ public class ItemController {
 
     @PostMapping()
     public ItemDto save(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                        @RequestBody ItemDto itemDto) {
+                        @RequestBody ItemDto itemDto,
+                        HttpServletResponse response) {
         var itemRequestDto = itemDto.getRequestId() != null
                 ? itemRequestService.getItemRequestById(itemDto.getRequestId(), userId)
                 : null;
-        return itemService.save(itemDto, itemRequestDto, userId);
+        var saved = itemService.save(itemDto, itemRequestDto, userId);
+        if (saved.getRequestId() != null)
+            invalidate(response, "/requests/" + saved.getRequestId());
+        return saved;
     }
 
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                           @RequestBody ItemDto itemDto,
-                          @PathVariable Long itemId) {
+                          @PathVariable Long itemId,
+                          HttpServletResponse response) {
         itemDto.setId(itemId);
-        return itemService.update(itemDto, userId);
+        var updated = itemService.update(itemDto, userId);
+        if (updated.getRequestId() != null)
+            invalidate(response, "/requests/" + updated.getRequestId());
+        return updated;
+    }
+
+    @PostMapping("/batch")
+    public List<BatchResultDto<ItemDto>> saveAll(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
+                                                 @RequestBody List<ItemDto> itemDtos,
+                                                 HttpServletResponse response) {
+        var results = itemService.saveAll(itemDtos, userId);
+        invalidate(response, "/requests/", results.stream()
+                .map(BatchResultDto::getResult)
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(toSet()));
+        return results;
     }
 
     @GetMapping("/{itemId}")
     public ItemAllFieldsDto get(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                @PathVariable Long itemId) {
+                                @PathVariable Long itemId,
+                                WebRequest request) {
+        var etag = itemService.getEtag(itemId, userId);
+        if (etag != null && request.checkNotModified(etag)) return null;
         return itemService.get(itemId, userId);
     }
 
+    /**
+     * Свободные и занятые отрезки вещи по дням с {@code from} по {@code to} включительно.
+     */
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable Long itemId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @DeleteMapping("/{itemId}")
     public void delete(@PathVariable Long itemId) {
         itemService.delete(itemId);
@@ -50,7 +99,14 @@ public class ItemController {
     @GetMapping()
     public List<ItemAllFieldsDto> getAllItems(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                               @RequestParam(required = false) Integer from,
-                                              @RequestParam(required = false) Integer size) {
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(required = false) boolean count,
+                                              HttpServletResponse response) {
+        if (count)
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(itemService.countItems(userId)));
+        if (after != null)
+            return Cursor.write(itemService.scrollItems(userId, after, size), response).getContent();
         return itemService.getAllItems(userId, from, size);
     }
 
@@ -58,14 +114,24 @@ public class ItemController {
     public List<ItemDto> search(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                 @RequestParam(required = false) Integer from,
                                 @RequestParam(required = false) Integer size,
-                                @RequestParam(required = false) String text) {
+                                @RequestParam(required = false) String text,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(required = false) boolean count,
+                                HttpServletResponse response) {
+        if (count)
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(itemService.countSearch(text)));
+        if (after != null)
+            return Cursor.write(itemService.scrollSearch(text, userId, after, size), response).getContent();
         return itemService.search(text, userId, from, size);
     }
 
     @PostMapping("{itemId}/comment")
     public CommentDto saveComment(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                   @RequestBody CommentDto commentDto,
-                                  @PathVariable Long itemId) {
-        return itemService.saveComment(commentDto, itemId, userId);
+                                  @PathVariable Long itemId,
+                                  HttpServletResponse response) {
+        var saved = itemService.saveComment(commentDto, itemId, userId);
+        invalidate(response, "/items/" + itemId);
+        return saved;
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв для списка вещей: вместо автора и вещи — имя автора и id вещи.
+ */
+public interface CommentView {
+    Long getId();
+
+    Long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Вещь из полнотекстового поиска вместе с её релевантностью, которая служит ключом курсора.
+ */
+public interface ItemSearchView extends ItemSummaryView {
+    Double getRank();
+}
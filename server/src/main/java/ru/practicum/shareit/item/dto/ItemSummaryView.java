@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Вещь без комментариев и бронирований: собственные поля и внешние ключи.
+ */
+public interface ItemSummaryView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
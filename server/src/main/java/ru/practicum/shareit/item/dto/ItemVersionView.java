@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * То, от чего зависит ответ {@code GET /items/{id}}, без самих данных: версия вещи, указатели
+ * броней и по строке на каждый комментарий (у вещи без комментариев — одна строка с пустыми полями).
+ */
+public interface ItemVersionView {
+    Long getVersion();
+
+    Long getOwnerId();
+
+    Long getLastBookingId();
+
+    Long getNextBookingId();
+
+    LocalDateTime getBookingPointersExpireAt();
+
+    Long getCommentId();
+
+    String getAuthorName();
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 public class CommentMapper {
@@ -19,4 +20,14 @@ public class CommentMapper {
                 .created(comment.getCreated())
                 .build();
     }
+
+    public static CommentDto mapToCommentDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .itemId(comment.getItemId())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
 }
@@ -1,11 +1,11 @@
 package ru.practicum.shareit.item.mapper;
 
 
-import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSummaryView;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -40,9 +40,20 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto mapToItemDto(ItemSummaryView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .ownerId(item.getOwnerId())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public static ItemAllFieldsDto mapToItemAllFieldsDto(Item item,
-                                                         BookingAllFieldsDto lastBooking,
-                                                         BookingAllFieldsDto nextBooking,
+                                                         BookingDto lastBooking,
+                                                         BookingDto nextBooking,
                                                          List<CommentDto> comments) {
         return new ItemAllFieldsDto(
                 item.getId(),
@@ -51,8 +62,8 @@ public class ItemMapper {
                 item.getAvailable(),
                 item.getOwner() != null ? item.getOwner().getId() : null,
                 item.getRequest() != null ? item.getRequest().getId() : null,
-                lastBooking != null ? new BookingDto(lastBooking.getId(), lastBooking.getBooker().getId()) : null,
-                nextBooking != null ? new BookingDto(nextBooking.getId(), nextBooking.getBooker().getId()) : null,
+                lastBooking,
+                nextBooking,
                 comments != null ? comments : List.of()
         );
     }
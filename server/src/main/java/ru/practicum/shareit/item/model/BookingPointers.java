@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последняя и ближайшая брони вещи, хранящиеся прямо в строке items. Пишутся только запросом
+ * {@code ItemRepository.refreshBookingPointers}: при создании брони и фоновыми задачами.
+ * <p>
+ * В момент {@code expireAt} начинается или заканчивается какая-то бронь вещи, и указатели
+ * устаревают, пока их не пересчитают.
+ */
+@Getter
+@Setter
+@ToString
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPointers {
+    @Column(name = "last_booking_id", insertable = false, updatable = false)
+    private Long lastBookingId;
+    @Column(name = "last_booker_id", insertable = false, updatable = false)
+    private Long lastBookerId;
+    @Column(name = "next_booking_id", insertable = false, updatable = false)
+    private Long nextBookingId;
+    @Column(name = "next_booker_id", insertable = false, updatable = false)
+    private Long nextBookerId;
+    @Column(name = "booking_pointers_expire_at", insertable = false, updatable = false)
+    private LocalDateTime expireAt;
+
+    public boolean isFresh(LocalDateTime now) {
+        return expireAt == null || expireAt.isAfter(now);
+    }
+}
@@ -7,7 +7,18 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-
+@NamedEntityGraph(name = Comment.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("author")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "request", subgraph = "request")
+                }),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester"))
+        })
 @Getter
 @Setter
 @Builder
@@ -16,6 +27,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Table(name = "comments")
 public class Comment {
+    /**
+     * Отзыв вместе с автором и вещью: без графа автор каждого отзыва догружается отдельным запросом.
+     */
+    public static final String DETAILS_GRAPH = "Comment.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
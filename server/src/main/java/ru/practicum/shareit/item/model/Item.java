@@ -7,7 +7,12 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
-
+@NamedEntityGraph(name = Item.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "request", subgraph = "request")
+        },
+        subgraphs = @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requester")))
 @Getter
 @Setter
 @Builder
@@ -16,8 +21,14 @@ import ru.practicum.shareit.user.model.User;
 @NoArgsConstructor
 @Table(name = "items")
 public class Item {
+    /**
+     * Вещь вместе с владельцем и запросом: без графа владелец каждой вещи догружается отдельным запросом.
+     */
+    public static final String DETAILS_GRAPH = "Item.details";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String name;
@@ -25,11 +36,24 @@ public class Item {
     private String description;
     @Column(nullable = false)
     private Boolean available;
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    /**
+     * Растёт при каждом изменении вещи и при каждом одобрении её брони: два одновременных одобрения
+     * одной вещи не могут оба закоммититься.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Пустые указатели (все колонки NULL) Hibernate читает как null: у вещи нет броней.
+     */
+    @Embedded
+    private BookingPointers bookingPointers;
 }
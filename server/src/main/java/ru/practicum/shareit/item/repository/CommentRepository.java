@@ -1,10 +1,34 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String limitedByItemIdsQuery = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.text AS text, " +
+            "u.name AS authorName, ranked.created AS created FROM (" +
+            "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY " +
+            "CASE WHEN :newestFirst THEN c.created END DESC, c.created, c.id) AS rn " +
+            "FROM comments c " +
+            "WHERE c.item_id IN (:itemIds)) ranked " +
+            "JOIN users u ON u.id = ranked.author_id " +
+            "WHERE ranked.rn <= :limit " +
+            "ORDER BY ranked.item_id, ranked.rn";
+
+    @EntityGraph(Comment.DETAILS_GRAPH)
     List<Comment> findCommentByItem_IdIsOrderByCreated(Long itemId);
+
+    /**
+     * Имя автора берётся тем же запросом: сущности отзывов догружали бы автора каждого отдельно.
+     */
+    @Query(value = limitedByItemIdsQuery, nativeQuery = true)
+    List<CommentView> findLimitedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                       @Param("newestFirst") boolean newestFirst,
+                                       @Param("limit") int limit);
 }
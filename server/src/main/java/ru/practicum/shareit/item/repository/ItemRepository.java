@@ -1,33 +1,178 @@
 package ru.practicum.shareit.item.repository;
 
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemSummaryView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    String searchQuery = "SELECT item FROM Item item " +
-            "WHERE item.available = TRUE " +
+    String searchFilter = "WHERE item.available = TRUE " +
             "AND (UPPER(item.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
             "OR UPPER(item.description) LIKE UPPER(CONCAT('%', ?1, '%')))";
 
-    Page<Item> findAllByOwner_IdIs(Long ownerId, Pageable pageable);
+    String searchQuery = "SELECT item FROM Item item " + searchFilter;
 
+    String searchVector = "(setweight(to_tsvector('simple', i.name), 'A') " +
+            "|| setweight(to_tsvector('simple', i.description), 'B'))";
+
+    String fullTextSearchFilter = "WHERE i.available = TRUE " +
+            "AND (" + searchVector + " @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE CONCAT('%', :text, '%') " +
+            "OR i.description ILIKE CONCAT('%', :text, '%'))";
+
+    String fullTextSearchQuery = "SELECT i.* FROM items i " +
+            fullTextSearchFilter + " " +
+            "ORDER BY ts_rank(" + searchVector + ", plainto_tsquery('simple', :text)) DESC, i.id";
+
+    String lastBookingOfItem = "FROM bookings b WHERE b.item_id = i.id AND b.end_date < :now " +
+            "ORDER BY b.end_date DESC, b.id DESC LIMIT 1)";
+
+    String nextBookingOfItem = "FROM bookings b WHERE b.item_id = i.id AND b.start_date > :now " +
+            "ORDER BY b.end_date, b.id LIMIT 1)";
+
+    String bookingPointersExpireAt = "(SELECT MIN(CASE WHEN b.start_date > :now THEN b.start_date " +
+            "ELSE b.end_date END) FROM bookings b WHERE b.item_id = i.id AND b.end_date >= :now)";
+
+    String refreshBookingPointersQuery = "UPDATE items i SET " +
+            "last_booking_id = (SELECT b.id " + lastBookingOfItem + ", " +
+            "last_booker_id = (SELECT b.booker_id " + lastBookingOfItem + ", " +
+            "next_booking_id = (SELECT b.id " + nextBookingOfItem + ", " +
+            "next_booker_id = (SELECT b.booker_id " + nextBookingOfItem + ", " +
+            "booking_pointers_expire_at = " + bookingPointersExpireAt + " " +
+            "WHERE i.id IN (:itemIds)";
+
+    String inconsistentBookingPointersQuery = "SELECT i.id FROM items i " +
+            "WHERE i.id IN (:itemIds) " +
+            "AND (i.booking_pointers_expire_at IS NULL OR i.booking_pointers_expire_at > :now) " +
+            "AND (i.last_booking_id IS DISTINCT FROM (SELECT b.id " + lastBookingOfItem + " " +
+            "OR i.next_booking_id IS DISTINCT FROM (SELECT b.id " + nextBookingOfItem + " " +
+            "OR i.booking_pointers_expire_at IS DISTINCT FROM " + bookingPointersExpireAt + ")";
+
+    String fullTextSearchAfterQuery = "SELECT ranked.id AS id, ranked.name AS name, " +
+            "ranked.description AS description, ranked.available AS available, " +
+            "ranked.owner_id AS ownerId, ranked.request_id AS requestId, ranked.rank AS rank " +
+            "FROM (SELECT i.*, " +
+            "CAST(ts_rank(" + searchVector + ", plainto_tsquery('simple', :text)) AS DOUBLE PRECISION) AS rank " +
+            "FROM items i " +
+            fullTextSearchFilter + ") ranked " +
+            "WHERE ranked.rank < :rank OR (ranked.rank = :rank AND ranked.id > :id) " +
+            "ORDER BY ranked.rank DESC, ranked.id " +
+            "LIMIT :limit";
+
+    /**
+     * Пересчитывает последнюю и ближайшую брони вещей на момент {@code now} по таблице bookings.
+     * Контекст очищается: загруженные до этого вещи держат старые указатели.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = refreshBookingPointersQuery, nativeQuery = true)
+    int refreshBookingPointers(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT i.id FROM items i WHERE i.booking_pointers_expire_at < :now " +
+            "ORDER BY i.booking_pointers_expire_at LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsWithExpiredBookingPointers(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Вещи с неустаревшими указателями, которые не совпадают с пересчитанными по bookings.
+     */
+    @Query(value = inconsistentBookingPointersQuery, nativeQuery = true)
+    List<Long> findIdsWithInconsistentBookingPointers(@Param("itemIds") Collection<Long> itemIds,
+                                                      @Param("now") LocalDateTime now);
+
+    /**
+     * Вещи, которые база удалит каскадом вместе с пользователем: его собственные и отклики на его запросы.
+     */
+    @Query("SELECT item.id FROM Item item LEFT JOIN item.request request " +
+            "WHERE item.owner.id = :userId OR request.requester.id = :userId")
+    List<Long> findIdsDeletedWithUser(@Param("userId") Long userId);
+
+    @Query("SELECT item.id FROM Item item WHERE item.id > :id ORDER BY item.id")
+    List<Long> findIdsAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Увеличивает версию вещи, если она не изменилась с момента чтения. Строка вещи остаётся
+     * заблокированной в базе до конца транзакции.
+     *
+     * @return 0, если вещь успели изменить в другой транзакции
+     */
+    @Modifying
+    @Query("UPDATE Item item SET item.version = item.version + 1 WHERE item.id = :id AND item.version = :version")
+    int incrementVersion(@Param("id") Long id, @Param("version") Long version);
+
+    Slice<Item> findAllByOwner_IdIs(Long ownerId, Pageable pageable);
+
+    long countByOwner_IdIs(Long ownerId);
+
+    Window<Item> findAllByOwner_IdIsOrderById(Long ownerId, ScrollPosition position, Limit limit);
+
+    @EntityGraph(Item.DETAILS_GRAPH)
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
 
-    @Query(searchQuery)
-    Page<Item> search(String text, Pageable pageable);
+    @Query(searchQuery + " ORDER BY item.id")
+    Slice<Item> search(String text, Pageable pageable);
+
+    @Query("SELECT COUNT(item) FROM Item item " + searchFilter)
+    long countSearch(String text);
+
+    @Query(searchQuery + " AND item.id > ?2 ORDER BY item.id")
+    List<Item> searchAfter(String text, Long id, Limit limit);
 
     List<Item> findAllByRequest_IdIs(Long requestId);
 
+    @Query("SELECT item.id AS id, item.name AS name, item.description AS description, " +
+            "item.available AS available, item.owner.id AS ownerId, item.request.id AS requestId " +
+            "FROM Item item WHERE item.id = :id")
+    Optional<ItemSummaryView> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT item.id AS id, item.name AS name, item.description AS description, " +
+            "item.available AS available, item.owner.id AS ownerId, item.request.id AS requestId " +
+            "FROM Item item WHERE item.id IN :ids")
+    List<ItemSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Версия вещи для ETag: одним запросом, без бронирований и текстов комментариев.
+     * Имена авторов нужны, потому что попадают в ответ и меняются без изменения вещи.
+     */
+    @Query("SELECT item.version AS version, item.owner.id AS ownerId, " +
+            "item.bookingPointers.lastBookingId AS lastBookingId, " +
+            "item.bookingPointers.nextBookingId AS nextBookingId, " +
+            "item.bookingPointers.expireAt AS bookingPointersExpireAt, " +
+            "comment.id AS commentId, author.name AS authorName " +
+            "FROM Item item LEFT JOIN Comment comment ON comment.item = item LEFT JOIN comment.author author " +
+            "WHERE item.id = :id ORDER BY comment.id")
+    List<ItemVersionView> findVersionById(@Param("id") Long id);
+
     List<Item> findAllByOwner_IdIs(Long ownerId);
 
-    @Query(searchQuery)
+    @Query(searchQuery + " ORDER BY item.id")
     List<Item> search(String text);
 
+    @Query(value = fullTextSearchQuery, nativeQuery = true)
+    List<Item> fullTextSearch(@Param("text") String text, Pageable pageable);
+
+    @Query(value = fullTextSearchAfterQuery, nativeQuery = true)
+    List<ItemSearchView> fullTextSearchAfter(@Param("text") String text,
+                                             @Param("rank") double rank,
+                                             @Param("id") long id,
+                                             @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " + fullTextSearchFilter, nativeQuery = true)
+    long fullTextSearchCount(@Param("text") String text);
+
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.Cursor;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Встроенный инвертированный индекс по названию и описанию вещей. Отвечает на поиск
+ * целиком из памяти, без обращения к базе.
+ * <p>
+ * Термы хранятся в отсортированном словаре, поэтому каждое слово запроса ищется как префикс;
+ * вещь попадает в выдачу, только если совпали все слова запроса. Релевантность считается
+ * как сумма частот слов запроса в самой вещи, совпадение в названии весит вдвое больше, чем
+ * в описании. Статистика по всем вещам (idf) не учитывается, как и в {@code ts_rank}:
+ * релевантность вещи меняется только вместе с самой вещью.
+ * Недоступные вещи остаются в индексе и отсекаются по признаку доступности в документе.
+ * <p>
+ * Индекс строится один раз при старте, до запуска веб-сервера, и дальше обновляется хуками
+ * сохранения, изменения и удаления вещи. Изменения копятся в транзакции и попадают в индекс только после коммита:
+ * другие потоки не видят незакоммиченных вещей, а откат или неизвестный исход транзакции
+ * просто отбрасывает изменения. Сама транзакция видит свои изменения поверх индекса, как и в базе.
+ * <p>
+ * Курсор хранит пару (релевантность, id) последней вещи на странице. Изменения других вещей
+ * не сдвигают релевантность уже выданных, поэтому страницы не теряют и не повторяют строки.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final Map<String, Class<?>> CURSOR_KEYS = Map.of("rank", Double.class, "id", Long.class);
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, ItemDto> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Вызывается после создания всех бинов, но до старта веб-сервера и планировщика: пока индекс
+     * строится, запросов ещё нет.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Вещи читаются под блокировкой записи: изменение, закоммиченное после чтения, ждёт её
+     * и ложится поверх нового индекса, а не теряется при очистке.
+     */
+    public void rebuild() {
+        int size;
+        lock.writeLock().lock();
+        try {
+            var items = itemRepository.findAll();
+            postings.clear();
+            documents.clear();
+            items.forEach(item -> put(ItemMapper.mapToItemDto(item)));
+            size = items.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built for {} items", size);
+    }
+
+    @Override
+    public void index(Item item) {
+        apply(item.getId(), ItemMapper.mapToItemDto(item));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        apply(itemId, null);
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        var tokens = tokenize(text, 1).keySet();
+        if (tokens.isEmpty()) return emptyList();
+        var pending = pending();
+        lock.readLock().lock();
+        try {
+            var ranked = rank(tokens, pending).stream();
+            if (pageable.isPaged())
+                ranked = ranked
+                        .skip(pageable.getOffset())
+                        .limit(pageable.getPageSize());
+            return ranked
+                    .map(match -> document(match.getKey(), pending))
+                    .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Window<ItemDto> scroll(String text, KeysetScrollPosition position, Limit limit) {
+        var tokens = tokenize(text, 1).keySet();
+        if (tokens.isEmpty()) return Window.from(emptyList(), ScrollPosition::offset);
+        double afterRank = (Double) position.getKeys().getOrDefault("rank", Double.MAX_VALUE);
+        long afterId = (Long) position.getKeys().getOrDefault("id", 0L);
+        var pending = pending();
+        lock.readLock().lock();
+        try {
+            var page = rank(tokens, pending)
+                    .stream()
+                    .filter(match -> match.getValue() < afterRank
+                            || match.getValue() == afterRank && match.getKey() > afterId)
+                    .limit(limit.max() + 1)
+                    .collect(toList());
+            return Cursor.window(page, limit, match -> Map.of("rank", match.getValue(), "id", match.getKey()))
+                    .map(match -> document(match.getKey(), pending));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Class<?>> cursorKeys() {
+        return CURSOR_KEYS;
+    }
+
+    @Override
+    public long count(String text) {
+        var tokens = tokenize(text, 1).keySet();
+        if (tokens.isEmpty()) return 0;
+        var pending = pending();
+        lock.readLock().lock();
+        try {
+            return rank(tokens, pending).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вне транзакции изменение применяется сразу, в транзакции — откладывается до коммита.
+     */
+    private void apply(Long itemId, ItemDto document) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            bindPending().put(itemId, document);
+            return;
+        }
+        var changes = new HashMap<Long, ItemDto>();
+        changes.put(itemId, document);
+        commit(changes);
+    }
+
+    private void commit(Map<Long, ItemDto> changes) {
+        lock.writeLock().lock();
+        try {
+            changes.forEach((itemId, document) -> {
+                delete(itemId);
+                if (document != null) put(document);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Изменения текущей транзакции: id вещи — новый документ или {@code null}, если вещь удалена.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, ItemDto> pending() {
+        var pending = (Map<Long, ItemDto>) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending : emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ItemDto> bindPending() {
+        var pending = (Map<Long, ItemDto>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) return pending;
+        var changes = new LinkedHashMap<Long, ItemDto>();
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                commit(changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryItemSearchEngine.this);
+            }
+        });
+        return changes;
+    }
+
+    private ItemDto document(Long itemId, Map<Long, ItemDto> pending) {
+        return pending.containsKey(itemId) ? pending.get(itemId) : documents.get(itemId);
+    }
+
+    private static boolean isAvailable(ItemDto document) {
+        return document != null && Boolean.TRUE.equals(document.getAvailable());
+    }
+
+    private List<Map.Entry<Long, Double>> rank(Set<String> tokens, Map<Long, ItemDto> pending) {
+        Map<Long, Double> scores = null;
+        for (var token : tokens) {
+            var matches = match(token, pending);
+            if (matches.isEmpty()) return emptyList();
+            if (scores == null) {
+                scores = new HashMap<>();
+                for (var match : matches.entrySet())
+                    scores.put(match.getKey(), match.getValue());
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+        }
+        return scores.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .collect(toList());
+    }
+
+    /**
+     * Вещи, в которых есть терм с префиксом {@code token}. Вещи, изменённые в текущей транзакции,
+     * берутся из её документов, а не из индекса.
+     */
+    private Map<Long, Double> match(String token, Map<Long, ItemDto> pending) {
+        var matches = new HashMap<Long, Double>();
+        for (var term : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            var factor = factor(term.getKey(), token);
+            var posting = term.getValue();
+            for (var i = 0; i < posting.size(); i++) {
+                var id = posting.id(i);
+                if (!pending.containsKey(id) && isAvailable(documents.get(id)))
+                    matches.merge(id, posting.weight(i) * factor, Math::max);
+            }
+        }
+        for (var document : pending.values())
+            if (isAvailable(document))
+                terms(document).forEach((term, weight) -> {
+                    if (term.startsWith(token))
+                        matches.merge(document.getId(), weight * factor(term, token), Math::max);
+                });
+        return matches;
+    }
+
+    private static double factor(String term, String token) {
+        return term.equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+    }
+
+    private void put(ItemDto document) {
+        var id = document.getId();
+        terms(document).forEach((term, weight) -> postings.computeIfAbsent(term, key -> new PostingList()).put(id, weight));
+        documents.put(id, document);
+    }
+
+    private void delete(Long itemId) {
+        var document = documents.remove(itemId);
+        if (document == null) return;
+        for (var term : terms(document).keySet()) {
+            var posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private static Map<String, Integer> terms(ItemDto document) {
+        var terms = tokenize(document.getName(), NAME_WEIGHT);
+        tokenize(document.getDescription(), DESCRIPTION_WEIGHT).forEach((term, weight) -> terms.merge(term, weight, Integer::sum));
+        return terms;
+    }
+
+    private static Map<String, Integer> tokenize(String text, int weight) {
+        var terms = new HashMap<String, Integer>();
+        if (text == null) return terms;
+        for (var token : DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+            if (!token.isEmpty()) terms.merge(token, weight, Integer::sum);
+        return terms;
+    }
+}
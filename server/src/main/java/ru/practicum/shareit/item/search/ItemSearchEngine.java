@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поисковый движок для /items/search. Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+    /**
+     * Возвращает доступные вещи, подходящие под текст запроса, упорядоченные по релевантности.
+     */
+    List<ItemDto> search(String text, Pageable pageable);
+
+    /**
+     * То же, что {@link #search}, но страница начинается сразу после позиции курсора,
+     * а не со смещения, поэтому глубокие страницы не дороже первой.
+     */
+    Window<ItemDto> scroll(String text, KeysetScrollPosition position, Limit limit);
+
+    /**
+     * Ключи курсора, который выдаёт {@link #scroll}, и их типы.
+     */
+    Map<String, Class<?>> cursorKeys();
+
+    /**
+     * Общее число вещей, подходящих под текст запроса.
+     */
+    long count(String text);
+
+    /**
+     * Сообщает движку о создании или изменении вещи.
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Сообщает движку об удалении вещи.
+     */
+    default void remove(Long itemId) {
+    }
+}
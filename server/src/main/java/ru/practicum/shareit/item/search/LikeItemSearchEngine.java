@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.Cursor;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Поиск подстрокой через {@code LIKE}: работает на любой базе, но без индексов и без ранжирования.
+ * Выдача упорядочена по id, он же служит ключом курсора.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        var items = pageable.isPaged()
+                ? itemRepository.search(text, pageable).getContent()
+                : itemRepository.search(text);
+        return items.stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    @Override
+    public Window<ItemDto> scroll(String text, KeysetScrollPosition position, Limit limit) {
+        var afterId = (Long) position.getKeys().getOrDefault("id", 0L);
+        var items = itemRepository.searchAfter(text, afterId, Limit.of(limit.max() + 1))
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+        return Cursor.window(items, limit, item -> Map.of("id", item.getId()));
+    }
+
+    @Override
+    public Map<String, Class<?>> cursorKeys() {
+        return Map.of("id", Long.class);
+    }
+
+    @Override
+    public long count(String text) {
+        return itemRepository.countSearch(text);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.Cursor;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Полнотекстовый поиск PostgreSQL: {@code tsvector} по названию и описанию (GIN-индекс)
+ * плюс поиск подстрокой через {@code ILIKE}, который обслуживается trigram-индексами.
+ * Индексы создаются скриптом {@code schema-postgresql.sql}.
+ * <p>
+ * Курсор хранит пару (релевантность, id) последней вещи на странице. Первая страница
+ * запрашивается с заведомо недостижимой релевантностью, чтобы не передавать в запрос null.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private static final double MAX_RANK = Double.MAX_VALUE;
+    private static final Map<String, Class<?>> CURSOR_KEYS = Map.of("rank", Double.class, "id", Long.class);
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        return itemRepository.fullTextSearch(text, pageable)
+                .stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(toList());
+    }
+
+    @Override
+    public Window<ItemDto> scroll(String text, KeysetScrollPosition position, Limit limit) {
+        var keys = position.getKeys();
+        var rows = itemRepository.fullTextSearchAfter(text,
+                (Double) keys.getOrDefault("rank", MAX_RANK),
+                (Long) keys.getOrDefault("id", 0L),
+                limit.max() + 1);
+        return Cursor.window(rows, limit, row -> Map.of("rank", row.getRank(), "id", row.getId()))
+                .map(ItemMapper::mapToItemDto);
+    }
+
+    @Override
+    public Map<String, Class<?>> cursorKeys() {
+        return CURSOR_KEYS;
+    }
+
+    @Override
+    public long count(String text) {
+        return itemRepository.fullTextSearchCount(text);
+    }
+}
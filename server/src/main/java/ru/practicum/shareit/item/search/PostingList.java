@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Список вхождений терма: id вещей по возрастанию и вес терма в каждой из них.
+ * Хранится в примитивных массивах; новые вещи получают растущие id, поэтому вставка
+ * обычно сводится к дописыванию в конец.
+ */
+class PostingList {
+    private long[] ids = new long[4];
+    private int[] weights = new int[4];
+    private int size;
+
+    void put(long id, int weight) {
+        var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            weights[index] = weight;
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        System.arraycopy(weights, index, weights, index + 1, size - index);
+        ids[index] = id;
+        weights[index] = weight;
+        size++;
+    }
+
+    void remove(long id) {
+        var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) return;
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    int weight(int index) {
+        return weights[index];
+    }
+}
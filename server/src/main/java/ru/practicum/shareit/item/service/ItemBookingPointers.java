@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.config.BookingPointersProperties;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+
+/**
+ * Обслуживание указателей последней и ближайшей брони в строках items
+ * (см. {@link ru.practicum.shareit.item.model.BookingPointers}).
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ItemBookingPointers {
+    private final ItemRepository itemRepository;
+    private final BookingPointersProperties properties;
+
+    /**
+     * Пересчитывает указатели вещей, у которых с прошлого пересчёта началась или закончилась бронь.
+     *
+     * @return сколько вещей обновлено
+     */
+    @Transactional
+    public int roll() {
+        var now = now();
+        var rolled = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findIdsWithExpiredBookingPointers(now, properties.getBatchSize());
+            if (!itemIds.isEmpty()) itemRepository.refreshBookingPointers(itemIds, now);
+            rolled += itemIds.size();
+        } while (itemIds.size() == properties.getBatchSize());
+        return rolled;
+    }
+
+    /**
+     * Сверяет неустаревшие указатели всех вещей с таблицей bookings и чинит расхождения.
+     *
+     * @return сколько вещей пришлось исправить
+     */
+    @Transactional
+    public int check() {
+        var now = now();
+        var repaired = 0;
+        var after = 0L;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findIdsAfter(after, Limit.of(properties.getBatchSize()));
+            if (itemIds.isEmpty()) break;
+            var inconsistent = itemRepository.findIdsWithInconsistentBookingPointers(itemIds, now);
+            if (!inconsistent.isEmpty()) {
+                log.warn("Booking pointers out of sync for items {}, recalculating", inconsistent);
+                itemRepository.refreshBookingPointers(inconsistent, now);
+                repaired += inconsistent.size();
+            }
+            after = itemIds.get(itemIds.size() - 1);
+        } while (itemIds.size() == properties.getBatchSize());
+        return repaired;
+    }
+}
@@ -1,21 +1,37 @@
 package ru.practicum.shareit.item.service;
 
 
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.utils.BatchResultDto;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     List<ItemAllFieldsDto> getAllItems(Long userId, Integer from, Integer size);
 
     List<ItemDto> search(String text, Long userId, Integer from, Integer size);
 
+    Window<ItemAllFieldsDto> scrollItems(Long userId, String after, Integer size);
+
+    Window<ItemDto> scrollSearch(String text, Long userId, String after, Integer size);
+
+    long countItems(Long userId);
+
+    long countSearch(String text);
+
     ItemDto save(ItemDto itemDto, ItemRequestDto itemRequestDto, Long userId);
 
+    List<BatchResultDto<ItemDto>> saveAll(List<ItemDto> itemDtos, Long userId);
+
     CommentDto saveComment(CommentDto commentDto, Long itemId, Long userId);
 
     List<ItemDto> getItemsByRequests(List<ItemRequest> requests);
@@ -28,7 +44,26 @@ public interface ItemService {
 
     ItemAllFieldsDto get(Long id, Long userId);
 
-    List<CommentDto> getAllComments();
+    /**
+     * ETag ответа {@link #get} для этого пользователя, посчитанный без сборки ответа;
+     * {@code null}, если вещи нет или ответ зависит от устаревших указателей броней.
+     */
+    String getEtag(Long id, Long userId);
+
+    /**
+     * Вещь без комментариев и бронирований — для создания брони, где нужны только
+     * владелец, доступность и название.
+     */
+    ItemDto getSummary(Long id);
+
+    /**
+     * То же для пакета броней: вещи по id, несуществующих в ответе нет.
+     */
+    Map<Long, ItemDto> getSummaries(Collection<Long> ids);
+
+    List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDate from, LocalDate to);
+
+    Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds);
 
     void delete(Long itemId);
 
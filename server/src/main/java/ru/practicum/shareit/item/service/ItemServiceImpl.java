@@ -3,39 +3,60 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
-import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.config.CommentProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSummaryView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.References;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
 
 import static java.time.LocalDateTime.now;
 import static java.util.Collections.emptyList;
-import static java.util.Comparator.comparing;
+import static java.util.Collections.emptyMap;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.item.mapper.CommentMapper.mapToComment;
 import static ru.practicum.shareit.item.mapper.CommentMapper.mapToCommentDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
+import static ru.practicum.shareit.utils.HttpCaching.etag;
+import static ru.practicum.shareit.utils.Pagination.makeLimit;
 import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 
 @Slf4j
@@ -43,25 +64,87 @@ import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    /**
+     * На сколько дней вперёд показывается календарь, если конец периода не указан.
+     */
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+    private static final Map<String, Class<?>> CURSOR_KEYS = Map.of("id", Long.class);
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final BookingService bookingService;
     private final UserService userService;
+    private final CommentProperties commentProperties;
+    private final ItemSearchEngine itemSearchEngine;
+    private final References references;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
     @Transactional
     public ItemDto save(ItemDto itemDto, ItemRequestDto itemRequestDto, Long userId) {
 
-        var user = mapToUser(userService.get(userId));
+        userService.get(userId);
         var item = mapToItem(itemDto);
-        item.setOwner(user);
+        item.setId(null);
+        item.setOwner(references.user(userId));
         if (itemRequestDto != null)
-            item.setRequest(ItemRequestMapper.mapToItemRequest(
-                    itemRequestDto, userService.get(itemRequestDto.getRequesterId())));
+            item.setRequest(references.request(itemRequestDto.getId()));
         var save = itemRepository.save(item);
+        itemSearchEngine.index(save);
         return mapToItemDto(save);
     }
 
+    /**
+     * Каждый элемент проверяется отдельно (обязательные поля, существование запроса),
+     * корректные вещи вставляются пакетами JDBC.
+     */
+    @Override
+    @Transactional
+    public List<BatchResultDto<ItemDto>> saveAll(List<ItemDto> itemDtos, Long userId) {
+        userService.get(userId);
+        var requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(toList());
+        var knownRequestIds = new HashSet<>(requestIds.isEmpty()
+                ? List.of()
+                : itemRequestRepository.findExistingIds(requestIds));
+        var results = new ArrayList<BatchResultDto<ItemDto>>(itemDtos.size());
+        var items = new LinkedHashMap<Integer, Item>();
+        for (var i = 0; i < itemDtos.size(); i++) {
+            var itemDto = itemDtos.get(i);
+            try {
+                validate(itemDto);
+                if (itemDto.getRequestId() != null && !knownRequestIds.contains(itemDto.getRequestId()))
+                    throw new NotFoundException("Запрос с ID#" + itemDto.getRequestId() + " не существует");
+                var item = mapToItem(itemDto);
+                item.setId(null);
+                item.setOwner(references.user(userId));
+                if (itemDto.getRequestId() != null)
+                    item.setRequest(references.request(itemDto.getRequestId()));
+                items.put(i, item);
+                results.add(null);
+            } catch (ValidationException | NotFoundException e) {
+                results.add(BatchResultDto.failed(i, e));
+            }
+        }
+        itemRepository.saveAllAndFlush(items.values());
+        items.forEach((index, item) -> {
+            itemSearchEngine.index(item);
+            results.set(index, BatchResultDto.saved(index, mapToItemDto(item)));
+        });
+        return results;
+    }
+
+    private void validate(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank())
+            throw new ValidationException("Название вещи не может быть пустым");
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank())
+            throw new ValidationException("Описание вещи не может быть пустым");
+        if (itemDto.getAvailable() == null)
+            throw new ValidationException("Не указана доступность вещи");
+    }
+
     @Override
     @Transactional
     public ItemDto update(ItemDto itemDto, Long userId) {
@@ -77,64 +160,155 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null)
             item.setAvailable(itemDto.getAvailable());
         var save = itemRepository.save(item);
+        itemSearchEngine.index(save);
         return mapToItemDto(save);
     }
 
+    @Override
+    public ItemDto getSummary(Long id) {
+        return itemRepository.findSummaryById(id)
+                .map(ItemMapper::mapToItemDto)
+                .orElseThrow(() -> new NotFoundException("Вещь с id#" + id + " не существует"));
+    }
+
+    @Override
+    public Map<Long, ItemDto> getSummaries(Collection<Long> ids) {
+        if (ids.isEmpty()) return emptyMap();
+        return itemRepository.findSummariesByIdIn(ids)
+                .stream()
+                .collect(toMap(ItemSummaryView::getId, ItemMapper::mapToItemDto));
+    }
+
     @Override
     public ItemAllFieldsDto get(Long id, Long userId) {
         log.debug("Fetching item with id: {} for userId: {}", id, userId);
         var item = itemRepository.findById(id).orElseThrow(
                 () -> new NotFoundException("Вещь с id#" + id + " не существует"));
-        log.debug("Item found: {}", item);
         var comments = getAllComments(id);
-        log.debug("Comments fetched for item id {}: {}", id, comments);
-        var bookings = bookingService.getBookingsByItem(item.getId(), userId);
-        log.debug("Bookings fetched for item id {}: {}", id, bookings);
+        log.atDebug().setMessage("Item {} found with {} comments")
+                .addArgument(id)
+                .addArgument(comments::size)
+                .log();
+        if (!item.getOwner().getId().equals(userId))
+            return mapToItemAllFieldsDto(item, null, null, comments);
+        var items = List.of(item);
+        var now = now();
         return mapToItemAllFieldsDto(item,
-                getLastItem(bookings),
-                getNextItem(bookings),
+                getLastBookings(items, now).get(id),
+                getNextBookings(items, now).get(id),
                 comments);
 
     }
 
+    /**
+     * Чужая вещь показывается без броней, поэтому её ETag от указателей не зависит.
+     * Владельцу брони берутся из указателей, пока они не устарели, — только тогда их и можно
+     * положить в ETag.
+     */
+    @Override
+    public String getEtag(Long id, Long userId) {
+        var rows = itemRepository.findVersionById(id);
+        if (rows.isEmpty()) return null;
+        var item = rows.get(0);
+        var comments = rows.stream()
+                .filter(row -> row.getCommentId() != null)
+                .map(row -> row.getCommentId() + ":" + row.getAuthorName())
+                .collect(toList());
+        if (!item.getOwnerId().equals(userId))
+            return etag(id, item.getVersion(), comments);
+        var expireAt = item.getBookingPointersExpireAt();
+        if (expireAt != null && !expireAt.isAfter(now())) return null;
+        return etag(id, item.getVersion(), item.getLastBookingId(), item.getNextBookingId(), comments);
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        var start = from != null ? from : LocalDate.now();
+        var end = to != null ? to : start.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        if (start.isBefore(LocalDate.now()))
+            throw new ValidationException("Календарь доступен только с сегодняшнего дня");
+        if (end.isBefore(start))
+            throw new ValidationException("Конец периода раньше начала: " + start + " — " + end);
+        if (!itemRepository.existsById(itemId))
+            throw new NotFoundException("Вещь с id#" + itemId + " не существует");
+        return bookingService.getAvailability(itemId, start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Брони вещи база удаляет каскадом, поэтому из занятых интервалов их убирает сервис.
+     */
     @Override
+    @Transactional
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        itemSearchEngine.remove(id);
+        bookingIntervalIndex.evict(List.of(id));
     }
 
     @Override
     public List<ItemAllFieldsDto> getAllItems(Long userId, Integer from, Integer size) {
-        Stream<Item> stream;
-
-        var bookings = bookingService.getBookingsByOwnerId(userId, BookingTimeState.valueOf("ALL"), 0, Integer.MAX_VALUE)
-                .stream()
-                .collect(groupingBy((BookingAllFieldsDto bookingAllFieldsDto) -> bookingAllFieldsDto.getItem().getId()));
-        var comments = getAllComments().stream()
-                .collect(groupingBy(CommentDto::getItemId));
+        List<Item> items;
         var pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
         if (pageRequest == null)
-            stream = itemRepository.findAllByOwner_IdIs(userId).stream();
+            items = itemRepository.findAllByOwner_IdIs(userId);
         else
-            stream = itemRepository.findAllByOwner_IdIs(userId, pageRequest).stream();
-        return stream.map(item -> ItemMapper.mapToItemAllFieldsDto(item,
-                        getLastItem(bookings.get(item.getId())),
-                        getNextItem(bookings.get(item.getId())),
+            items = itemRepository.findAllByOwner_IdIs(userId, pageRequest).getContent();
+
+        var itemIds = items.stream()
+                .map(Item::getId)
+                .collect(toList());
+        var now = now();
+        var lastBookings = getLastBookings(items, now);
+        var nextBookings = getNextBookings(items, now);
+        var comments = getComments(itemIds);
+        return items.stream()
+                .map(item -> ItemMapper.mapToItemAllFieldsDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
                         comments.get(item.getId())))
                 .collect(toList());
     }
 
+    @Override
+    public Window<ItemAllFieldsDto> scrollItems(Long userId, String after, Integer size) {
+        var items = itemRepository.findAllByOwner_IdIsOrderById(userId, Cursor.decode(after, CURSOR_KEYS), makeLimit(size));
+        var itemIds = items.stream()
+                .map(Item::getId)
+                .collect(toList());
+        var now = now();
+        var lastBookings = getLastBookings(items.getContent(), now);
+        var nextBookings = getNextBookings(items.getContent(), now);
+        var comments = getComments(itemIds);
+        return items.map(item -> ItemMapper.mapToItemAllFieldsDto(item,
+                lastBookings.get(item.getId()),
+                nextBookings.get(item.getId()),
+                comments.get(item.getId())));
+    }
+
     @Override
     public List<ItemDto> search(String text, Long userId, Integer from, Integer size) {
-        Stream<Item> stream;
         if (text.isBlank()) return emptyList();
-        var pageRequest = makePageRequest(from, size, Sort.by("id").ascending());
-        if (pageRequest == null)
-            stream = itemRepository.search(text).stream();
-        else
-            stream = itemRepository.search(text, pageRequest).stream();
-        return stream
-                .map(ItemMapper::mapToItemDto)
-                .collect(toList());
+        var pageRequest = makePageRequest(from, size, Sort.unsorted());
+        return itemSearchEngine.search(text, pageRequest != null ? pageRequest : Pageable.unpaged());
+    }
+
+    @Override
+    public Window<ItemDto> scrollSearch(String text, Long userId, String after, Integer size) {
+        var position = Cursor.decode(after, itemSearchEngine.cursorKeys());
+        var limit = makeLimit(size);
+        if (text.isBlank()) return Window.from(emptyList(), ScrollPosition::offset);
+        return itemSearchEngine.scroll(text, position, limit);
+    }
+
+    @Override
+    public long countItems(Long userId) {
+        return itemRepository.countByOwner_IdIs(userId);
+    }
+
+    @Override
+    public long countSearch(String text) {
+        if (text.isBlank()) return 0;
+        return itemSearchEngine.count(text);
     }
 
     @Override
@@ -172,11 +346,15 @@ public class ItemServiceImpl implements ItemService {
 
 
     @Override
-    public List<CommentDto> getAllComments() {
-        return commentRepository.findAll()
+    public Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return emptyMap();
+        return commentRepository.findLimitedByItemIds(
+                        itemIds,
+                        commentProperties.getOrder().isDescending(),
+                        commentProperties.getPerItemLimit())
                 .stream()
                 .map(CommentMapper::mapToCommentDto)
-                .collect(toList());
+                .collect(groupingBy(CommentDto::getItemId));
     }
 
     @Override
@@ -203,24 +381,35 @@ public class ItemServiceImpl implements ItemService {
                 .collect(toList());
     }
 
-    private BookingAllFieldsDto getNextItem(List<BookingAllFieldsDto> bookings) {
-        if (bookings != null)
-            return bookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(now()))
-                    .min(comparing(BookingAllFieldsDto::getEnd))
-                    .orElse(null);
-        else
-            return null;
+    /**
+     * Последние брони вещей: из указателей в строке вещи, а для вещей с устаревшими
+     * указателями — одним запросом по bookings.
+     */
+    private Map<Long, BookingDto> getLastBookings(List<Item> items, LocalDateTime now) {
+        var bookings = new HashMap<>(bookingService.getLastBookings(getStaleItemIds(items, now)));
+        for (var item : items) {
+            var pointers = item.getBookingPointers();
+            if (pointers != null && pointers.isFresh(now) && pointers.getLastBookingId() != null)
+                bookings.put(item.getId(), new BookingDto(pointers.getLastBookingId(), pointers.getLastBookerId()));
+        }
+        return bookings;
     }
 
-    private BookingAllFieldsDto getLastItem(List<BookingAllFieldsDto> bookings) {
-        if (bookings != null)
-            return bookings.stream()
-                    .filter(booking -> booking.getEnd().isBefore(now()))
-                    .max(comparing(BookingAllFieldsDto::getEnd))
-                    .orElse(null);
-        else
-            return null;
+    private Map<Long, BookingDto> getNextBookings(List<Item> items, LocalDateTime now) {
+        var bookings = new HashMap<>(bookingService.getNextBookings(getStaleItemIds(items, now)));
+        for (var item : items) {
+            var pointers = item.getBookingPointers();
+            if (pointers != null && pointers.isFresh(now) && pointers.getNextBookingId() != null)
+                bookings.put(item.getId(), new BookingDto(pointers.getNextBookingId(), pointers.getNextBookerId()));
+        }
+        return bookings;
+    }
+
+    private List<Long> getStaleItemIds(List<Item> items, LocalDateTime now) {
+        return items.stream()
+                .filter(item -> item.getBookingPointers() != null && !item.getBookingPointers().isFresh(now))
+                .map(Item::getId)
+                .collect(toList());
     }
 
 }
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Источник данных, который отдаёт соединения, считающие в {@link JdbcStatistics} выполненные
+ * запросы и строки, прочитанные из их результатов. Пакетное выполнение считается одним запросом.
+ * Запрос дольше {@code slowStatement} пишется в лог с текстом и источником, а из остальных
+ * в лог {@value SAMPLED_LOGGER} попадает доля {@code sampleRate} — вместо полного лога Hibernate.
+ * Пул соединений остаётся внутри: метрики Hikari находят его через {@link DelegatingDataSource}.
+ */
+@Slf4j
+public class CountingDataSource extends DelegatingDataSource implements AutoCloseable {
+    public static final String SAMPLED_LOGGER = "ru.practicum.shareit.sql";
+    private static final Logger sampled = LoggerFactory.getLogger(SAMPLED_LOGGER);
+    private final long slowStatementNanos;
+    private final double sampleRate;
+
+    public CountingDataSource(DataSource target, Duration slowStatement, double sampleRate) {
+        super(target);
+        this.slowStatementNanos = slowStatement.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), null, null);
+    }
+
+    /**
+     * Закрывает пул вместе с контекстом: Spring вызывает {@code close} у этого бина, а не у пула.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    private <T> T proxy(Class<T> type, T target, Object owner, String sql) {
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new Counting(target, owner, sql)));
+    }
+
+    /**
+     * {@code owner} — прокси соединения у запроса и прокси запроса у результата: их возвращают
+     * {@code getConnection} и {@code getStatement}, чтобы Hibernate видел те же объекты, что создал.
+     * {@code sql} — текст подготовленного запроса.
+     */
+    private class Counting implements InvocationHandler {
+        private final Object target;
+        private final Object owner;
+        private final String sql;
+
+        Counting(Object target, Object owner, String sql) {
+            this.target = target;
+            this.owner = owner;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection", "getStatement":
+                    if (owner != null) return owner;
+                    break;
+                default:
+                    break;
+            }
+            var execute = target instanceof Statement && method.getName().startsWith("execute");
+            var begin = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (execute) executed(System.nanoTime() - begin, args);
+            if (target instanceof ResultSet && method.getName().equals("next") && Boolean.TRUE.equals(result))
+                JdbcStatistics.rowFetched();
+            if (result == null || method.getName().equals("unwrap") || Proxy.isProxyClass(result.getClass()))
+                return result;
+            return wrap(proxy, result, args);
+        }
+
+        private void executed(long nanos, Object[] args) {
+            JdbcStatistics.statementExecuted();
+            if (nanos >= slowStatementNanos)
+                log.warn("Slow SQL statement: {} ms in {}: {}", nanos / 1_000_000, JdbcStatistics.origin(), text(args));
+            else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)
+                sampled.info("Sampled SQL statement: {} us in {}: {}", nanos / 1_000, JdbcStatistics.origin(), text(args));
+        }
+
+        private String text(Object[] args) {
+            return sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "batch";
+        }
+
+        private Object wrap(Object owner, Object result, Object[] args) {
+            var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement)
+                return proxy(CallableStatement.class, statement, owner, sql);
+            if (result instanceof PreparedStatement statement)
+                return proxy(PreparedStatement.class, statement, owner, sql);
+            if (result instanceof Statement statement)
+                return proxy(Statement.class, statement, owner, null);
+            if (result instanceof ResultSet resultSet)
+                return proxy(ResultSet.class, resultSet, owner, null);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Считает JDBC-запросы и прочитанные строки за время обработки HTTP-запроса и пишет их
+ * в распределения {@value STATEMENTS} и {@value ROWS} с тегами метода и шаблона пути,
+ * как у {@code http.server.requests}.
+ * <p>
+ * Запрос сверх бюджета ({@link SqlBudgetProperties}) увеличивает {@value BUDGET_EXCEEDED} и пишется
+ * в лог с источниками запросов — так видно N+1: сотня вызовов одного метода репозитория.
+ * В строгом режиме фильтр вдобавок бросает {@link SqlBudgetExceededException}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JdbcMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS = "shareit.request.jdbc.statements";
+    public static final String ROWS = "shareit.request.jdbc.rows";
+    public static final String BUDGET_EXCEEDED = "shareit.request.sql.budget.exceeded";
+    private static final int REPORTED_ORIGINS = 5;
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var statistics = JdbcStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            JdbcStatistics.stop();
+            record(request, statistics);
+        }
+        checkBudget(request, statistics);
+    }
+
+    private void record(HttpServletRequest request, JdbcStatistics statistics) {
+        DistributionSummary.builder(STATEMENTS)
+                .description("JDBC statements executed per HTTP request")
+                .baseUnit("statements")
+                .tags(tags(request))
+                .register(meterRegistry)
+                .record(statistics.statements());
+        DistributionSummary.builder(ROWS)
+                .description("JDBC rows fetched per HTTP request")
+                .baseUnit("rows")
+                .tags(tags(request))
+                .register(meterRegistry)
+                .record(statistics.rows());
+    }
+
+    private void checkBudget(HttpServletRequest request, JdbcStatistics statistics) {
+        var uri = uri(request);
+        var limit = budget.getEndpoints().getOrDefault(uri, budget.getMaxStatements());
+        if (statistics.statements() <= limit) return;
+        Counter.builder(BUDGET_EXCEEDED)
+                .description("HTTP requests that exceeded the SQL statement budget")
+                .tags(tags(request))
+                .register(meterRegistry)
+                .increment();
+        var message = String.format("SQL budget exceeded: %s executed %d statements (budget %d): %s",
+                request.getMethod() + " " + uri, statistics.statements(), limit, origins(statistics.statementsByOrigin()));
+        if (budget.isStrict()) throw new SqlBudgetExceededException(message);
+        log.warn(message);
+    }
+
+    private static Tags tags(HttpServletRequest request) {
+        return Tags.of("method", request.getMethod(), "uri", uri(request));
+    }
+
+    private static String uri(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String origins(Map<String, Integer> statements) {
+        return statements.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(REPORTED_ORIGINS)
+                .map(origin -> origin.getKey() + " x" + origin.getValue())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счётчики JDBC текущего HTTP-запроса: выполненные запросы к базе и прочитанные строки, а также
+ * запросы по источникам — методам репозиториев и сервисов, из которых они выполнены.
+ * Считает {@link CountingDataSource}, пока поток обрабатывает запрос ({@link JdbcMetricsFilter});
+ * вне запроса, например в планировщике, ничего не считается.
+ * <p>
+ * Источник — самый внутренний метод, отмеченный {@link SqlOriginAspect}: запрос из метода
+ * репозитория относится к нему, ленивая загрузка в сервисе — к методу сервиса.
+ */
+public final class JdbcStatistics {
+    public static final String UNKNOWN_ORIGIN = "unknown";
+    private static final ThreadLocal<JdbcStatistics> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<String>> ORIGINS = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, Integer> statementsByOrigin = new HashMap<>();
+    private long statements;
+    private long rows;
+
+    private JdbcStatistics() {
+    }
+
+    static JdbcStatistics start() {
+        var statistics = new JdbcStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Счётчики запроса, который обрабатывает текущий поток, или {@code null}.
+     */
+    public static JdbcStatistics current() {
+        return CURRENT.get();
+    }
+
+    static void enter(String origin) {
+        ORIGINS.get().push(origin);
+    }
+
+    static void exit() {
+        ORIGINS.get().pop();
+    }
+
+    static String origin() {
+        var origin = ORIGINS.get().peek();
+        return origin != null ? origin : UNKNOWN_ORIGIN;
+    }
+
+    static void statementExecuted() {
+        var statistics = CURRENT.get();
+        if (statistics == null) return;
+        statistics.statements++;
+        statistics.statementsByOrigin.merge(origin(), 1, Integer::sum);
+    }
+
+    static void rowFetched() {
+        var statistics = CURRENT.get();
+        if (statistics != null) statistics.rows++;
+    }
+
+    public long statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public Map<String, Integer> statementsByOrigin() {
+        return Map.copyOf(statementsByOrigin);
+    }
+}
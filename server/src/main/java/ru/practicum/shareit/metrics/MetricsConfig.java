@@ -0,0 +1,52 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Метрики сервера поверх стандартных метрик actuator: время методов сервисов
+ * ({@link ServiceTimingAspect}) и число JDBC-запросов и строк на HTTP-запрос
+ * ({@link JdbcMetricsFilter}) с бюджетом запросов и источниками ({@link SqlOriginAspect}).
+ * Всё публикуется и в {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Настройки берутся при обёртке источника данных, а не при регистрации постпроцессора:
+     * к этому времени они уже привязаны к свойствам.
+     */
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<SqlBudgetProperties> budget,
+                                                                    ObjectProvider<SqlLogProperties> sqlLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                        ? new CountingDataSource(dataSource, budget.getObject().getSlowStatement(),
+                                sqlLog.getObject().getSampleRate())
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public ServiceTimingAspect serviceTimingAspect(MeterRegistry meterRegistry) {
+        return new ServiceTimingAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlOriginAspect sqlOriginAspect() {
+        return new SqlOriginAspect();
+    }
+
+    @Bean
+    public JdbcMetricsFilter jdbcMetricsFilter(MeterRegistry meterRegistry, SqlBudgetProperties budget) {
+        return new JdbcMetricsFilter(meterRegistry, budget);
+    }
+}
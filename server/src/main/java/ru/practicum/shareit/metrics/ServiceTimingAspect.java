@@ -0,0 +1,82 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingTimeState;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Таймеры {@value METRIC} на методы сервисов броней, вещей, запросов и пользователей с тегами
+ * сервиса, метода, исключения, фильтра броней {@code state} и {@code paged} — запрошена ли
+ * страница ({@code size} передан). У методов без фильтра {@code state=none}, неизвестный
+ * фильтр — {@code UNKNOWN}, чтобы произвольные строки не плодили ряды метрик.
+ * <p>
+ * Таймер снаружи транзакции и кэша: в замер входят коммит и попадания в кэш пользователей.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceTimingAspect {
+    public static final String METRIC = "shareit.service";
+    private static final Set<String> STATES = Stream.concat(Arrays.stream(BookingTimeState.values()),
+                    Arrays.stream(BookingState.values()))
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.service.ItemService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.request.service.ItemRequestService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.user.service.UserService+.*(..))")
+    public Object time(ProceedingJoinPoint point) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        var exception = "none";
+        try {
+            return point.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Service method execution time")
+                    .tags(tags(point))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Tags tags(ProceedingJoinPoint point) {
+        var signature = (MethodSignature) point.getSignature();
+        var names = signature.getParameterNames();
+        var args = point.getArgs();
+        var state = "none";
+        var paged = false;
+        for (var i = 0; i < names.length; i++) {
+            if (names[i].equals("state")) state = state(args[i]);
+            if (names[i].equals("size")) paged = args[i] != null;
+        }
+        return Tags.of("service", signature.getDeclaringType().getSimpleName().replace("Impl", ""),
+                "method", signature.getName(),
+                "state", state,
+                "paged", String.valueOf(paged));
+    }
+
+    private static String state(Object state) {
+        if (state == null) return BookingTimeState.ALL.name();
+        if (state instanceof Enum<?> known) return known.name();
+        return STATES.contains(state.toString()) ? state.toString() : "UNKNOWN";
+    }
+}
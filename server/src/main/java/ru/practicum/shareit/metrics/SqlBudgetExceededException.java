@@ -0,0 +1,11 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * HTTP-запрос выполнил больше SQL-запросов, чем позволяет бюджет; бросается только в строгом режиме.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бюджет SQL-запросов на HTTP-запрос и порог медленного запроса.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-budget")
+public class SqlBudgetProperties {
+    /**
+     * Сколько JDBC-запросов может выполнить один HTTP-запрос; больше — предупреждение в логе.
+     */
+    private int maxStatements = 20;
+    /**
+     * Бюджеты отдельных эндпоинтов по шаблону пути, например {@code [/items/{itemId}]}.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+    /**
+     * Превышение бюджета — ошибка запроса, а не предупреждение. Для тестов.
+     */
+    private boolean strict = false;
+    /**
+     * Запрос к базе дольше этого времени пишется в лог вместе с источником.
+     */
+    private Duration slowStatement = Duration.ofMillis(500);
+}
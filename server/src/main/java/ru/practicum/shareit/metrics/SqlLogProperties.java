@@ -0,0 +1,18 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Выборочный лог SQL: замена {@code org.hibernate.SQL=DEBUG}, которая не пишет каждый запрос.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-log")
+public class SqlLogProperties {
+    /**
+     * Доля запросов к базе, которые пишутся в лог {@value CountingDataSource#SAMPLED_LOGGER}, от 0 до 1.
+     */
+    private double sampleRate = 0;
+}
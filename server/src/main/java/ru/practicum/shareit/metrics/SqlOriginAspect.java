@@ -0,0 +1,45 @@
+package ru.practicum.shareit.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Отмечает в {@link JdbcStatistics}, из какого метода репозитория или сервиса выполняются
+ * SQL-запросы, например {@code BookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc}.
+ * Репозиторий называется по своему интерфейсу, даже если метод унаследован от {@code JpaRepository}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlOriginAspect {
+    private final Map<Class<?>, String> names = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || execution(public * ru.practicum.shareit.booking.service.BookingService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.item.service.ItemService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.request.service.ItemRequestService+.*(..))"
+            + " || execution(public * ru.practicum.shareit.user.service.UserService+.*(..))")
+    public Object track(ProceedingJoinPoint point) throws Throwable {
+        JdbcStatistics.enter(name(point.getTarget()) + "." + point.getSignature().getName());
+        try {
+            return point.proceed();
+        } finally {
+            JdbcStatistics.exit();
+        }
+    }
+
+    private String name(Object target) {
+        return names.computeIfAbsent(target.getClass(), type -> Arrays.stream(ClassUtils.getAllInterfacesForClass(type))
+                .filter(face -> face.getName().startsWith("ru.practicum.shareit."))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElseGet(() -> ClassUtils.getUserClass(type).getSimpleName()));
+    }
+}
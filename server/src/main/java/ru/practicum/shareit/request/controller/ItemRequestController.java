@@ -1,12 +1,17 @@
 package ru.practicum.shareit.request.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utils.Cursor;
 
 import java.util.List;
 
+import static ru.practicum.shareit.utils.Pagination.TOTAL_COUNT_HEADER;
+
 
 @RestController
 @AllArgsConstructor
@@ -23,7 +28,14 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestDto> getAllItemRequests(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
                                                    @RequestParam(required = false) Integer from,
-                                                   @RequestParam(required = false) Integer size) {
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestParam(required = false) boolean count,
+                                                   HttpServletResponse response) {
+        if (count)
+            response.setHeader(TOTAL_COUNT_HEADER, String.valueOf(itemRequestService.countItemRequests(userId)));
+        if (after != null)
+            return Cursor.write(itemRequestService.scrollItemRequests(after, size, userId), response).getContent();
         return itemRequestService.getAllItemRequests(from, size, userId);
     }
 
@@ -35,7 +47,10 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequest(@RequestHeader(value = HEADER_SHARER_USER_ID, required = false) Long userId,
-                                         @PathVariable long requestId) {
+                                         @PathVariable long requestId,
+                                         WebRequest request) {
+        var etag = itemRequestService.getEtag(requestId, userId);
+        if (etag != null && request.checkNotModified(etag)) return null;
         return itemRequestService.getItemRequestById(requestId, userId);
     }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.dto;
+
+/**
+ * Вещь, предложенная в ответ на запрос, — только id и версия. У запроса без вещей одна строка с пустыми полями.
+ */
+public interface ItemRequestVersionView {
+    Long getItemId();
+
+    Long getVersion();
+}
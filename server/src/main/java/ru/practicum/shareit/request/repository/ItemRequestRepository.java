@@ -1,19 +1,42 @@
 package ru.practicum.shareit.request.repository;
 
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    Page<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    Slice<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId, Pageable pageable);
+
+    Window<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId,
+                                                                             ScrollPosition position,
+                                                                             Limit limit);
 
     List<ItemRequest> findItemRequestByRequester_IdIsNotOrderByCreatedDesc(Long userId);
 
     List<ItemRequest> findItemRequestByRequesterOrderByCreatedDesc(User user);
+
+    @Query("SELECT request.id FROM ItemRequest request WHERE request.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Версия запроса для ETag: сам запрос не меняется, поэтому достаточно id и версий его вещей.
+     */
+    @Query("SELECT item.id AS itemId, item.version AS version FROM ItemRequest request " +
+            "LEFT JOIN Item item ON item.request = request WHERE request.id = :id ORDER BY item.id")
+    List<ItemRequestVersionView> findVersionById(@Param("id") Long id);
+
+    long countByRequester_IdIsNot(Long userId);
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -8,10 +9,19 @@ import java.util.List;
 public interface ItemRequestService {
     List<ItemRequestDto> getAllItemRequests(Integer from, Integer size, Long userId);
 
+    Window<ItemRequestDto> scrollItemRequests(String after, Integer size, Long userId);
+
+    long countItemRequests(Long userId);
+
     ItemRequestDto save(ItemRequestDto itemRequestDto, Long requesterId);
 
     ItemRequestDto getItemRequestById(long requestId, Long userId);
 
+    /**
+     * ETag ответа {@link #getItemRequestById}, посчитанный без сборки ответа; {@code null}, если запроса нет.
+     */
+    String getEtag(long requestId, Long userId);
+
     List<ItemRequestDto> getAllItemRequests(Long userId);
 }
 
@@ -4,7 +4,9 @@ package ru.practicum.shareit.request.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -13,8 +15,12 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.References;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static java.time.LocalDateTime.now;
 import static java.util.stream.Collectors.groupingBy;
@@ -22,15 +28,20 @@ import static java.util.stream.Collectors.toList;
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.mapToItemRequest;
 import static ru.practicum.shareit.request.mapper.ItemRequestMapper.mapToItemRequestDto;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
+import static ru.practicum.shareit.utils.HttpCaching.etag;
+import static ru.practicum.shareit.utils.Pagination.makeLimit;
 import static ru.practicum.shareit.utils.Pagination.makePageRequest;
 
 @Slf4j
 @Service
 @AllArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Map<String, Class<?>> CURSOR_KEYS = Map.of("created", LocalDateTime.class, "id", Long.class);
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final References references;
 
     private void validate(ItemRequestDto itemRequestDto) {
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
@@ -39,12 +50,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional
     public ItemRequestDto save(ItemRequestDto itemRequestDto, Long requesterId) {
         validate(itemRequestDto);
-        var userDto = userService.get(requesterId);
-        var user = mapToUser(userDto);
+        userService.get(requesterId);
         var itemRequest = mapToItemRequest(itemRequestDto);
-        itemRequest.setRequester(user);
+        itemRequest.setRequester(references.user(requesterId));
         itemRequest.setCreated(now());
         var save = itemRequestRepository.save(itemRequest);
         return mapToItemRequestDto(save);
@@ -70,6 +81,21 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .collect(toList());
     }
 
+    @Override
+    public Window<ItemRequestDto> scrollItemRequests(String after, Integer size, Long userId) {
+        var requests = itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(
+                userId, Cursor.decode(after, CURSOR_KEYS), makeLimit(size));
+        var items = itemService.getItemsByRequests(requests.getContent())
+                .stream()
+                .collect(groupingBy(ItemDto::getRequestId));
+        return requests.map(itemRequest -> mapToItemRequestDto(itemRequest, items.get(itemRequest.getId())));
+    }
+
+    @Override
+    public long countItemRequests(Long userId) {
+        return itemRequestRepository.countByRequester_IdIsNot(userId);
+    }
+
     @Override
     public List<ItemRequestDto> getAllItemRequests(Long userId) {
         var userDto = userService.get(userId);
@@ -85,11 +111,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getItemRequestById(long requestId, Long userId) {
-        mapToUser(userService.get(userId));
+        userService.get(userId);
         var items = itemService.getItemsByRequestId(requestId);
         var itemRequest = itemRequestRepository.findById(requestId).orElseThrow(
                 () -> new NotFoundException("Запрос с ID#" + requestId + " не существует"));
         return mapToItemRequestDto(itemRequest, items);
     }
 
+    @Override
+    public String getEtag(long requestId, Long userId) {
+        userService.get(userId);
+        var items = itemRequestRepository.findVersionById(requestId);
+        if (items.isEmpty()) return null;
+        return etag(requestId, items.stream()
+                .filter(item -> item.getItemId() != null)
+                .map(item -> item.getItemId() + ":" + item.getVersion())
+                .collect(toList()));
+    }
+
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэш пользователей: ограничен по размеру и времени жизни, статистика попаданий
+ * публикуется в actuator как метрики {@code cache.gets}.
+ * <p>
+ * Запись и удаление откладываются до коммита транзакции, поэтому в кэш не попадает
+ * пользователь из откатившейся транзакции, а после изменения не остаётся старой версии.
+ */
+@EnableCaching
+@Configuration
+public class UserCacheConfig {
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(UserCacheProperties properties) {
+        var cacheManager = new CaffeineCacheManager(USERS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша пользователей перед {@code UserService.get}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.users.cache")
+public class UserCacheProperties {
+    /**
+     * Максимальное количество пользователей в кэше.
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Время жизни записи с момента загрузки.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.util.List;
 
+import static ru.practicum.shareit.utils.HttpCaching.etag;
+
 
 @RestController
 @RequiredArgsConstructor
@@ -19,15 +23,25 @@ public class UserController {
         return userService.save(userDto);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<UserDto>> createAll(@RequestBody List<UserDto> userDtos) {
+        return userService.saveAll(userDtos);
+    }
+
     @PatchMapping("/{userId}")
     public UserDto update(@RequestBody UserDto userDto,
                           @PathVariable Long userId) {
         return userService.update(userDto, userId);
     }
 
+    /**
+     * Пользователь берётся из кэша, поэтому ETag считается прямо по нему.
+     */
     @GetMapping("/{userId}")
-    public UserDto get(@PathVariable Long userId) {
-        return userService.get(userId);
+    public UserDto get(@PathVariable Long userId, WebRequest request) {
+        var user = userService.get(userId);
+        if (request.checkNotModified(etag(user.getId(), user.getName(), user.getEmail()))) return null;
+        return user;
     }
 
     @DeleteMapping("/{userId}")
@@ -2,9 +2,25 @@ package ru.practicum.shareit.user.repository;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("SELECT user.email FROM User user WHERE user.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * То же в отдельной транзакции: после ошибки вставки текущая транзакция для запросов уже не годится.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("SELECT user.email FROM User user WHERE user.email IN :emails")
+    List<String> findCommittedEmails(@Param("emails") Collection<String> emails);
 
 }
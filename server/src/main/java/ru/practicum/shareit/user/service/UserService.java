@@ -2,12 +2,15 @@ package ru.practicum.shareit.user.service;
 
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.util.List;
 
 public interface UserService {
     UserDto save(UserDto userDto);
 
+    List<BatchResultDto<UserDto>> saveAll(List<UserDto> userDtos);
+
     UserDto update(UserDto userDto, Long userId);
 
     UserDto get(Long userId);
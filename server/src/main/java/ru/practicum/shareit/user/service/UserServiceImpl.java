@@ -4,19 +4,33 @@ package ru.practicum.shareit.user.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.EmailException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.BatchResultDto;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
 
 import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.user.config.UserCacheConfig.USERS;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUserDto;
 
@@ -26,6 +40,10 @@ import static ru.practicum.shareit.user.mapper.UserMapper.mapToUserDto;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     private void validate(UserDto userDto) {
         if (userDto.getEmail() == null)
@@ -39,7 +57,7 @@ public class UserServiceImpl implements UserService {
     public UserDto save(UserDto userDto) {
         validate(userDto);
         try {
-            return mapToUserDto(userRepository.save(mapToUser(userDto)));
+            return mapToUserDto(userRepository.saveAndFlush(mapToUser(userDto)));
         } catch (DataIntegrityViolationException e) {
             if (e.getCause() instanceof ConstraintViolationException) {
                 throw new EmailException("Пользователь с email: " + userDto.getEmail() + " уже существует.");
@@ -48,8 +66,49 @@ public class UserServiceImpl implements UserService {
         return null;
     }
 
+    /**
+     * Ошибки элементов (пустой или занятый email, повтор внутри пакета) возвращаются по одной,
+     * остальные пользователи вставляются пакетами JDBC. Если email занял параллельный запрос уже
+     * после проверки, пакет откатывается целиком, а в ошибке перечисляются занятые email.
+     */
     @Override
     @Transactional
+    public List<BatchResultDto<UserDto>> saveAll(List<UserDto> userDtos) {
+        var results = new ArrayList<BatchResultDto<UserDto>>(userDtos.size());
+        var emails = userDtos.stream()
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .collect(toList());
+        var takenEmails = new HashSet<>(emails.isEmpty() ? List.of() : userRepository.findExistingEmails(emails));
+        var users = new LinkedHashMap<Integer, User>();
+        for (var i = 0; i < userDtos.size(); i++) {
+            var userDto = userDtos.get(i);
+            try {
+                validate(userDto);
+                if (!takenEmails.add(userDto.getEmail()))
+                    throw new EmailException("Пользователь с email: " + userDto.getEmail() + " уже существует.");
+                var user = mapToUser(userDto);
+                user.setId(null);
+                users.put(i, user);
+                results.add(null);
+            } catch (ValidationException | EmailException e) {
+                results.add(BatchResultDto.failed(i, e));
+            }
+        }
+        try {
+            userRepository.saveAllAndFlush(users.values());
+        } catch (DataIntegrityViolationException e) {
+            var conflicts = userRepository.findCommittedEmails(users.values().stream().map(User::getEmail).collect(toList()));
+            if (conflicts.isEmpty()) throw e;
+            throw new EmailException("Пользователи с email: " + String.join(", ", conflicts) + " уже существуют.");
+        }
+        users.forEach((index, user) -> results.set(index, BatchResultDto.saved(index, mapToUserDto(user))));
+        return results;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS, key = "#userId")
     public UserDto update(UserDto userDto, Long userId) {
         var user = userRepository.findById(userId).orElseThrow(() -> {
             throw new NotFoundException("Пользователь с  ID #" + userId + " не существует.");
@@ -68,6 +127,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = USERS)
     public UserDto get(Long userId) {
         var user = userRepository.findById(userId).orElseThrow(() -> {
             throw new NotFoundException("Пользователь с ID #" + userId + " не существует.");
@@ -75,9 +135,18 @@ public class UserServiceImpl implements UserService {
         return mapToUserDto(user);
     }
 
+    /**
+     * Вещи пользователя, отклики на его запросы и его брони база удаляет каскадом, поэтому из поиска
+     * и из занятых интервалов их убирает сервис.
+     */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = USERS)
     public void delete(Long userId) {
+        var itemIds = itemRepository.findIdsDeletedWithUser(userId);
+        itemIds.forEach(itemSearchEngine::remove);
+        bookingIntervalIndex.evict(itemIds);
+        bookingIntervalIndex.evict(bookingRepository.findItemIdsByBookerAndStatus(userId, APPROVED));
         userRepository.deleteById(userId);
     }
 
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.error.ErrorHandler;
+
+/**
+ * Результат одного элемента пакетного запроса: сохранённый объект либо код и текст ошибки —
+ * те же, что вернул бы одиночный запрос. {@code index} — позиция элемента во входном списке.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto<T> {
+    private int index;
+    private int status;
+    private T result;
+    private String error;
+
+    public static <T> BatchResultDto<T> saved(int index, T result) {
+        return new BatchResultDto<>(index, HttpStatus.OK.value(), result, null);
+    }
+
+    public static <T> BatchResultDto<T> failed(int index, RuntimeException e) {
+        return new BatchResultDto<>(index, ErrorHandler.statusOf(e).value(), null, e.getMessage());
+    }
+}
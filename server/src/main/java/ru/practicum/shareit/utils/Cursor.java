@@ -0,0 +1,87 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации: ключи позиции (например, start и id последней
+ * бронирования на странице) кодируются в base64url-строку. Пустой курсор означает начало выборки.
+ */
+public class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Разбирает курсор, выданный тем же эндпоинтом: набор ключей и их типы должны совпасть
+     * с {@code keys}. Подделанный, устаревший или чужой курсор — {@link ValidationException}.
+     */
+    public static KeysetScrollPosition decode(String cursor, Map<String, Class<?>> keys) {
+        if (cursor.isBlank()) return ScrollPosition.keyset();
+        var decoded = new LinkedHashMap<String, Object>();
+        try {
+            var text = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            for (var pair : text.split("&")) {
+                var name = pair.substring(0, pair.indexOf('='));
+                var value = pair.substring(pair.indexOf('=') + 3);
+                var key = switch (pair.charAt(name.length() + 1)) {
+                    case 'L' -> Long.valueOf(value);
+                    case 'D' -> Double.valueOf(value);
+                    case 'T' -> LocalDateTime.parse(value);
+                    default -> throw new IllegalArgumentException(pair);
+                };
+                if (!keys.containsKey(name) || !keys.get(name).isInstance(key) || decoded.put(name, key) != null)
+                    throw new IllegalArgumentException(pair);
+            }
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+        if (!decoded.keySet().equals(keys.keySet()))
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        return ScrollPosition.forward(decoded);
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        var joiner = new StringJoiner("&");
+        for (Map.Entry<String, ?> key : position.getKeys().entrySet())
+            joiner.add(key.getKey() + "=" + type(key.getValue()) + ":" + key.getValue());
+        return ENCODER.encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> Window<T> write(Window<T> window, HttpServletResponse response) {
+        if (window.hasNext() && !window.isEmpty()
+                && window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position)
+            response.setHeader(NEXT_CURSOR_HEADER, encode(position));
+        return window;
+    }
+
+    /**
+     * Собирает окно из строк, выбранных с запасом в одну строку сверх лимита: лишняя строка
+     * только сообщает, что следующая страница есть.
+     */
+    public static <T> Window<T> window(List<T> rows, Limit limit, Function<T, Map<String, ?>> keys) {
+        var hasNext = rows.size() > limit.max();
+        var content = hasNext ? rows.subList(0, limit.max()) : rows;
+        return Window.from(content, index -> ScrollPosition.forward(keys.apply(content.get(index))), hasNext);
+    }
+
+    private static char type(Object value) {
+        if (value instanceof Long) return 'L';
+        if (value instanceof Double) return 'D';
+        if (value instanceof LocalDateTime) return 'T';
+        throw new IllegalArgumentException("Unsupported cursor key: " + value);
+    }
+}
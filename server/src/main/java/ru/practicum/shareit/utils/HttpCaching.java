@@ -0,0 +1,33 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * ETag'и ответов и заголовок, которым сервер сообщает шлюзу, какие закэшированные ответы
+ * устарели после записи. Шлюз сам удаляет из кэша путь изменяющего запроса; в заголовке
+ * перечисляются только другие ресурсы, чьё представление изменилось.
+ */
+public class HttpCaching {
+    public static final String INVALIDATE_HEADER = "X-Cache-Invalidate";
+
+    /**
+     * Строгий ETag по частям, от которых зависит представление ресурса.
+     */
+    public static String etag(Object... parts) {
+        var source = Arrays.deepToString(parts).getBytes(StandardCharsets.UTF_8);
+        return "\"" + DigestUtils.md5DigestAsHex(source) + "\"";
+    }
+
+    public static void invalidate(HttpServletResponse response, String path) {
+        response.addHeader(INVALIDATE_HEADER, path);
+    }
+
+    public static void invalidate(HttpServletResponse response, String prefix, Collection<Long> ids) {
+        ids.forEach(id -> invalidate(response, prefix + id));
+    }
+}
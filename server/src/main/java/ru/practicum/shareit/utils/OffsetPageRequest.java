@@ -0,0 +1,31 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Запрос страницы, начинающейся с произвольного элемента {@code from}, а не с границы страницы.
+ */
+public class OffsetPageRequest extends PageRequest {
+    private final long offset;
+
+    public OffsetPageRequest(long offset, int size, Sort sort) {
+        super((int) (offset / size), size, sort);
+        this.offset = offset;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof OffsetPageRequest other && other.offset == offset && super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Long.hashCode(offset);
+    }
+}
@@ -1,15 +1,23 @@
 package ru.practicum.shareit.utils;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.error.ValidationException;
 
-import static org.springframework.data.domain.PageRequest.of;
-
 public class Pagination {
+    public static final int DEFAULT_SIZE = 10;
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     public static PageRequest makePageRequest(Integer from, Integer size, Sort sort) {
         if (size == null || from == null) return null;
         if (size <= 0 || from < 0) throw new ValidationException("size <= 0 || from < 0");
-        return of(from / size, size, sort);
+        return new OffsetPageRequest(from, size, sort);
+    }
+
+    public static Limit makeLimit(Integer size) {
+        if (size == null) return Limit.of(DEFAULT_SIZE);
+        if (size <= 0) throw new ValidationException("size <= 0");
+        return Limit.of(size);
     }
 }
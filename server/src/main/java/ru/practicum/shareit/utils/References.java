@@ -0,0 +1,34 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Ссылки на сущности по id без чтения из базы: вместо объекта подставляется прокси,
+ * и при сохранении связи в INSERT попадает только внешний ключ.
+ * <p>
+ * Существование сущности проверяет вызывающий код (пользователя — через кэш
+ * {@code UserService.get}); если строки всё же нет, INSERT не пройдёт по внешнему ключу.
+ * Прокси нельзя читать дальше id, иначе он загрузится отдельным запросом.
+ */
+@Component
+@AllArgsConstructor
+public class References {
+    private final EntityManager entityManager;
+
+    public User user(Long userId) {
+        return entityManager.getReference(User.class, userId);
+    }
+
+    public Item item(Long itemId) {
+        return entityManager.getReference(Item.class, itemId);
+    }
+
+    public ItemRequest request(Long requestId) {
+        return entityManager.getReference(ItemRequest.class, requestId);
+    }
+}
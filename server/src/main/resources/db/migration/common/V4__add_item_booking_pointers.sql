@@ -0,0 +1,14 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booker_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booker_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_pointers_expire_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS ix_items_booking_pointers_expire_at ON items (booking_pointers_expire_at);
+
+UPDATE items SET booking_pointers_expire_at = CURRENT_TIMESTAMP
+WHERE EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = items.id);
@@ -0,0 +1,38 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_vector ON items
+    USING GIN ((setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')));
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING GIN (description gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- A database created by the old schema-postgresql.sql already has the constraint.
+-- Overlapping APPROVED bookings are not cleaned up automatically: which of them to keep is a business
+-- decision, so the migration fails with the first conflicting pair and leaves the schema unchanged.
+DO $$
+DECLARE
+    conflict RECORD;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_bookings_approved_overlap') THEN
+        RETURN;
+    END IF;
+    SELECT b1.id AS first_id, b2.id AS second_id, b1.item_id
+    INTO conflict
+    FROM bookings b1
+             JOIN bookings b2 ON b2.item_id = b1.item_id AND b2.id > b1.id
+    WHERE b1.status = 'APPROVED'
+      AND b2.status = 'APPROVED'
+      AND tsrange(b1.start_date, b1.end_date) && tsrange(b2.start_date, b2.end_date)
+    LIMIT 1;
+    IF FOUND THEN
+        RAISE EXCEPTION 'Cannot add ex_bookings_approved_overlap: APPROVED bookings % and % of item % overlap',
+            conflict.first_id, conflict.second_id, conflict.item_id
+            USING HINT = 'Set one of the overlapping bookings to REJECTED or CANCELED, then re-run the migration.';
+    END IF;
+    ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+        EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = 'APPROVED');
+END
+$$;
@@ -0,0 +1,5 @@
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
+
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings), false);
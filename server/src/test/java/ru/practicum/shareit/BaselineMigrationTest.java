@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * База, созданная старым {@code schema.sql}, получает версию 1 через baseline и дальше только
+ * новые миграции: всё, что появилось в схеме после него, должно прийти ими, а не через V1.
+ */
+class BaselineMigrationTest {
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void initialize() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:baselined;DB_CLOSE_DELAY=-1", "shareit", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/schema.sql")).execute(dataSource);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) VALUES ('Item', 'Item', TRUE, 1)");
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 1, 'APPROVED')");
+    }
+
+    @Test
+    void shouldMigrateDatabaseBaselinedFromOldSchema() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        assertThat(jdbcTemplate.queryForList(
+                        "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"type\" = 'BASELINE'", String.class),
+                contains("1"));
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM items", Long.class), equalTo(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM bookings", Long.class), equalTo(0L));
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Прогоняет через EXPLAIN запросы, которые на самом деле строят finder'ы репозиториев,
+ * и проверяет, что ни одна таблица не читается целиком. Таблицы заполняются заранее:
+ * на пустых планировщик не отличает индекс от полного просмотра.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$Statements")
+class QueryPlanTest {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private final User user = User.builder().id(1L).build();
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    public static class Statements implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static final String[] DATA = {
+            "INSERT INTO users (name, email) SELECT 'User', 'user' || x || '@mail.com' FROM SYSTEM_RANGE(1, 100)",
+            "INSERT INTO requests (description, requester_id, created) "
+                    + "SELECT 'Request', u.id, CURRENT_DATE FROM users u, SYSTEM_RANGE(1, 5)",
+            "INSERT INTO items (name, description, available, owner_id) "
+                    + "SELECT 'Item', 'Item', TRUE, u.id FROM users u, SYSTEM_RANGE(1, 5)",
+            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                    + "SELECT NOW(), NOW(), i.id, i.owner_id, 'WAITING' FROM items i, SYSTEM_RANGE(1, 10)",
+            "INSERT INTO comments (text, item_id, author_id, created) "
+                    + "SELECT 'Comment', i.id, i.owner_id, NOW() FROM items i",
+            "ANALYZE"
+    };
+
+    private static boolean filled;
+
+    @BeforeEach
+    void fill() {
+        if (filled) return;
+        for (var sql : DATA) execute(sql);
+        filled = true;
+    }
+
+    private void execute(String sql) {
+        var connection = DataSourceUtils.getConnection(dataSource);
+        try (var statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void assertUsesIndexes(Runnable finder) {
+        STATEMENTS.clear();
+        finder.run();
+        for (var sql : STATEMENTS) {
+            var plan = explain(sql);
+            assertThat(sql, plan, not(containsString("tableScan")));
+        }
+    }
+
+    private String explain(String sql) {
+        var connection = DataSourceUtils.getConnection(dataSource);
+        try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (var i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++)
+                statement.setObject(i, null);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @Test
+    void bookerFindersUseIndexes() {
+        var page = PageRequest.of(0, 10);
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(user));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(user, page));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsOrderByStartDesc(
+                user, ScrollPosition.keyset(), Limit.of(10)));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(user, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(user, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                user, now(), now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(user, APPROVED));
+        assertUsesIndexes(() -> bookingRepository.countBookingsByBookerIs(user));
+        assertUsesIndexes(() -> bookingRepository.countBookingsByBookerIsAndStatusIs(user, APPROVED));
+    }
+
+    @Test
+    void ownerFindersUseIndexes() {
+        var page = PageRequest.of(0, 10);
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(1L));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(1L, page));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(1L, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(1L, now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(
+                1L, now(), now()));
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_Owner_IdIsAndStatusIsOrderByStartDesc(1L, APPROVED));
+        assertUsesIndexes(() -> bookingRepository.countBookingsByItem_Owner_IdIs(1L));
+    }
+
+    @Test
+    void itemBookingFindersUseIndexes() {
+        assertUsesIndexes(() -> bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(1L, 1L));
+        assertUsesIndexes(() -> bookingRepository.findByItem_IdIsAndStatusIs(1L, APPROVED));
+        assertUsesIndexes(() -> bookingRepository.findLastByItemIds(List.of(1L, 2L), now()));
+        assertUsesIndexes(() -> bookingRepository.findNextByItemIds(List.of(1L, 2L), now()));
+    }
+
+    @Test
+    void itemFindersUseIndexes() {
+        assertUsesIndexes(() -> itemRepository.findAllByOwner_IdIs(1L));
+        assertUsesIndexes(() -> itemRepository.findAllByOwner_IdIs(1L, PageRequest.of(0, 10)));
+        assertUsesIndexes(() -> itemRepository.countByOwner_IdIs(1L));
+        assertUsesIndexes(() -> itemRepository.findAllByRequest_IdIs(1L));
+        assertUsesIndexes(() -> itemRepository.findSummaryById(1L));
+        assertUsesIndexes(() -> itemRepository.findIdsAfter(1L, Limit.of(10)));
+        assertUsesIndexes(() -> itemRepository.findIdsWithExpiredBookingPointers(now(), 10));
+        assertUsesIndexes(() -> itemRepository.findIdsWithInconsistentBookingPointers(List.of(1L, 2L), now()));
+        assertUsesIndexes(() -> itemRepository.refreshBookingPointers(List.of(1L, 2L), now()));
+        assertUsesIndexes(() -> itemRepository.findVersionById(1L));
+        assertUsesIndexes(() -> commentRepository.findCommentByItem_IdIsOrderByCreated(1L));
+    }
+
+    @Test
+    void requestFindersUseIndexes() {
+        assertUsesIndexes(() -> itemRequestRepository.findItemRequestByRequesterOrderByCreatedDesc(user));
+        assertUsesIndexes(() -> itemRequestRepository.findItemRequestByRequester_IdIsNotOrderByCreatedDesc(
+                1L, PageRequest.of(0, 10)));
+        assertUsesIndexes(() -> itemRequestRepository.findVersionById(1L));
+    }
+}
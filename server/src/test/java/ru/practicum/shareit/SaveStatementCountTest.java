@@ -0,0 +1,136 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static java.time.LocalDateTime.now;
+import static java.util.List.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Сохранение брони, вещи и запроса на горячем пути — ровно один INSERT и ни одного SELECT:
+ * пользователь берётся из кэша, связанные сущности подставляются ссылками. Бронь вдобавок
+ * одним UPDATE пересчитывает указатели броней своей вещи. Пакет пользователей — одна проверка
+ * email и один пакетный INSERT.
+ * Кэш пользователей наполняется только после коммита, поэтому тест без общей транзакции.
+ * Запросы к последовательностям id не считаются: их выбирают пачкой на 50 id, и попадёт ли
+ * такой запрос в замер, зависит от порядка тестов.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.SaveStatementCountTest$Statements"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SaveStatementCountTest {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final BookingService bookingService;
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto booker;
+
+    public static class Statements implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void initialize() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.save(new UserDto(null, "Owner", "statements-owner@mail.com"));
+        booker = userService.save(new UserDto(null, "Booker", "statements-booker@mail.com"));
+        userService.get(owner.getId());
+        userService.get(booker.getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(booker.getId());
+        userService.delete(owner.getId());
+    }
+
+    private void assertSingleInsert(Runnable save) {
+        assertSingleInsert(save, 1L);
+    }
+
+    private void assertSingleInsert(Runnable save, long statements) {
+        statistics.clear();
+        STATEMENTS.clear();
+        save.run();
+        assertThat(statistics.getEntityInsertCount(), equalTo(1L));
+        assertThat(STATEMENTS.stream().filter(sql -> !isSequenceCall(sql)).count(), equalTo(statements));
+    }
+
+    private static boolean isSequenceCall(String sql) {
+        var lower = sql.toLowerCase();
+        return lower.contains("next value for") || lower.contains("nextval(");
+    }
+
+    @Test
+    void saveItemRequestTest() {
+        assertSingleInsert(() -> itemRequestService.save(
+                ItemRequestDto.builder().description("Need a drill").build(), booker.getId()));
+    }
+
+    @Test
+    void saveItemTest() {
+        var request = itemRequestService.save(
+                ItemRequestDto.builder().description("Need a drill").build(), booker.getId());
+        assertSingleInsert(() -> itemService.save(
+                new ItemDto(null, "Drill", "Drill", true, null, request.getId()), request, owner.getId()));
+    }
+
+    @Test
+    void saveBookingTest() {
+        var item = itemService.save(new ItemDto(null, "Drill", "Drill", true, null, null), null, owner.getId());
+        var itemAllFieldsDto = new ItemAllFieldsDto(item.getId(), item.getName(), item.getDescription(),
+                true, owner.getId(), null, null, null, of());
+        bookingService.getAvailability(item.getId(), now(), now().plusDays(1));
+        assertSingleInsert(() -> bookingService.save(BookingSavingDto.builder()
+                .start(now().plusDays(1))
+                .end(now().plusDays(2))
+                .itemId(item.getId())
+                .build(), itemAllFieldsDto, booker.getId()), 2L);
+    }
+
+    @Test
+    void saveUsersBatchTest() {
+        var users = IntStream.range(0, 5)
+                .mapToObj(i -> new UserDto(null, "User" + i, "statements-batch" + i + "@mail.com"))
+                .toList();
+        statistics.clear();
+        STATEMENTS.clear();
+        var results = userService.saveAll(users);
+        assertThat(statistics.getEntityInsertCount(), equalTo(5L));
+        assertThat(STATEMENTS.stream().filter(sql -> !isSequenceCall(sql)).count(), equalTo(2L));
+        results.forEach(result -> userService.delete(result.getResult().getId()));
+    }
+}
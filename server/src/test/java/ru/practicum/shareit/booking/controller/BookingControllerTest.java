@@ -15,8 +15,11 @@ import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.LocalDateTime.of;
@@ -25,10 +28,13 @@ import static java.util.List.of;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
@@ -88,6 +94,39 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllBookingsWithTotalCountTest() throws Exception {
+        when(bookingService.getAllBookings(anyLong(), anyString(), anyInt(), anyInt()))
+                .thenReturn(of(bookingAllFieldsDto));
+        when(bookingService.countBookings(anyLong(), anyString()))
+                .thenReturn(7L);
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "All")
+                        .param("size", "1")
+                        .param("from", "0")
+                        .param("count", "true")
+                )
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllBookingsWithoutTotalCountTest() throws Exception {
+        when(bookingService.getAllBookings(anyLong(), anyString(), anyInt(), anyInt()))
+                .thenReturn(of(bookingAllFieldsDto));
+        mvc.perform(get("/bookings")
+                        .header(headerSharerUserId, 1)
+                        .param("state", "All")
+                        .param("size", "1")
+                        .param("from", "0")
+                )
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(status().isOk());
+        verify(bookingService, never()).countBookings(anyLong(), anyString());
+    }
+
     @Test
     void getBookingsByOwnerIdTest() throws Exception {
         // Убедитесь, что используется конкретное значение BookingTimeState
@@ -275,4 +314,37 @@ class BookingControllerTest {
                 )
                 .andExpect(status().is5xxServerError());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void saveAllTest() throws Exception {
+        when(itemService.getSummaries(anyCollection()))
+                .thenReturn(Map.of(1L, itemDto));
+        when(bookingService.saveAll(anyList(), anyMap(), anyLong()))
+                .thenReturn(of(
+                        BatchResultDto.saved(0, bookingAllFieldsDto),
+                        BatchResultDto.failed(1, new NotFoundException("Вещь с id#2 не существует"))));
+        mvc.perform(post("/bookings/batch")
+                        .header(headerSharerUserId, 1)
+                        .content(mapper.writeValueAsString(of(bookingSavingDto, bookingSavingDto)))
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].result.id", is(1)))
+                .andExpect(jsonPath("$[1].status", is(404)));
+        verify(itemService).getSummaries(Set.of(1L));
+    }
+
+    @Test
+    void saveAllWithoutUserTest() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(of(bookingSavingDto)))
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).saveAll(anyList(), anyMap(), anyLong());
+    }
+}
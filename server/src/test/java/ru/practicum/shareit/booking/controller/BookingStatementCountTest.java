@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Проверяет, что списки бронирований читаются одним запросом, сколько бы разных вещей,
+ * владельцев и запросов ни попало на страницу. Ещё один запрос — проверка пользователя.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingStatementCountTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final int BOOKINGS = 6;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final MockMvc mvc;
+    private Statistics statistics;
+    private User booker;
+    private User owner;
+    private Booking booking;
+
+    @BeforeEach
+    void initialize() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = persist(new User(null, "Owner", "owner@mail.com"));
+        var otherOwner = persist(new User(null, "Other", "other@mail.com"));
+        booker = persist(new User(null, "Booker", "booker@mail.com"));
+        for (var i = 0; i < BOOKINGS; i++) {
+            var requester = persist(new User(null, "Requester" + i, "requester" + i + "@mail.com"));
+            var request = persist(new ItemRequest(null, "Need " + i, requester, now()));
+            var item = persist(new Item(null, "Item" + i, "Item" + i, true, i % 2 == 0 ? owner : otherOwner, request, null, null));
+            booking = persist(new Booking(null, now().plusDays(i + 1), now().plusDays(i + 2), item, booker, APPROVED, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private long statements(MockHttpServletRequestBuilder request, int expectedSize) throws Exception {
+        statistics.clear();
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedSize)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getBookingsTest() throws Exception {
+        assertThat(statements(get("/bookings").header(HEADER_SHARER_USER_ID, booker.getId()), BOOKINGS),
+                equalTo(2L));
+    }
+
+    @Test
+    void getBookingsPageTest() throws Exception {
+        var request = get("/bookings")
+                .header(HEADER_SHARER_USER_ID, booker.getId())
+                .param("state", "FUTURE")
+                .param("from", "1")
+                .param("size", "4");
+        assertThat(statements(request, 4), equalTo(2L));
+    }
+
+    @Test
+    void getBookingsByCursorTest() throws Exception {
+        var request = get("/bookings")
+                .header(HEADER_SHARER_USER_ID, booker.getId())
+                .param("after", "")
+                .param("size", "4");
+        assertThat(statements(request, 4), equalTo(2L));
+    }
+
+    @Test
+    void getOwnerBookingsTest() throws Exception {
+        var request = get("/bookings/owner")
+                .header(HEADER_SHARER_USER_ID, owner.getId())
+                .param("state", "ALL");
+        assertThat(statements(request, BOOKINGS / 2), equalTo(2L));
+    }
+
+    @Test
+    void getOwnerBookingsPageTest() throws Exception {
+        var request = get("/bookings/owner")
+                .header(HEADER_SHARER_USER_ID, owner.getId())
+                .param("from", "0")
+                .param("size", "2");
+        assertThat(statements(request, 2), equalTo(2L));
+    }
+
+    @Test
+    void getBookingTest() throws Exception {
+        statistics.clear();
+        mvc.perform(get("/bookings/{bookingId}", booking.getId()).header(HEADER_SHARER_USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", equalTo(booking.getId().intValue())));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+}
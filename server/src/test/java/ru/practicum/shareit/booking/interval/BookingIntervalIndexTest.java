@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.interval;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private final ItemLocks itemLocks = new ItemLocks();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void initialize() {
+        index = new BookingIntervalIndex(bookingRepository, itemLocks);
+    }
+
+    private static BookingIntervalView booking(long id, int startDays, int endDays) {
+        return new Interval(id, now().plusDays(startDays), now().plusDays(endDays));
+    }
+
+    private record Interval(Long getId, LocalDateTime getStart, LocalDateTime getEnd) implements BookingIntervalView {
+    }
+
+    @Test
+    void shouldDropItemsWithOnlyPastBookings() {
+        when(bookingRepository.findByItem_IdIsAndStatusIs(1L, APPROVED))
+                .thenReturn(List.of(booking(1, -10, -5), booking(2, -4, -2)));
+        when(bookingRepository.findByItem_IdIsAndStatusIs(2L, APPROVED))
+                .thenReturn(List.of(booking(3, -10, -5), booking(4, 1, 2)));
+        index.overlaps(1L, now(), now().plusHours(1));
+        index.overlaps(2L, now(), now().plusHours(1));
+
+        assertThat(index.prune(TTL), equalTo(1));
+        assertThat(index.size(), equalTo(1));
+        assertThat(index.overlaps(2L, now().minusDays(9), now().minusDays(6)), is(false));
+        assertThat(index.overlaps(2L, now().plusDays(1), now().plusDays(2)), is(true));
+    }
+
+    @Test
+    void shouldKeepEmptyItemWhileItIsLocked() throws Exception {
+        index.overlaps(1L, now(), now().plusHours(1));
+        var stripe = itemLocks.stripe(1L);
+        CompletableFuture.runAsync(stripe::lock).get();
+
+        assertThat(index.prune(TTL), equalTo(0));
+        assertThat(index.size(), equalTo(1));
+    }
+
+    @Test
+    void shouldReloadItemAfterTtl() {
+        when(bookingRepository.findByItem_IdIsAndStatusIs(1L, APPROVED))
+                .thenReturn(List.of(booking(1, 1, 2)))
+                .thenReturn(List.of());
+        assertThat(index.overlaps(1L, now().plusDays(1), now().plusDays(2)), is(true));
+
+        assertThat(index.prune(TTL), equalTo(0));
+        assertThat(index.prune(Duration.ZERO), equalTo(1));
+        assertThat(index.overlaps(1L, now().plusDays(1), now().plusDays(2)), is(false));
+    }
+
+    @Test
+    void shouldReloadEvictedItem() {
+        when(bookingRepository.findByItem_IdIsAndStatusIs(1L, APPROVED))
+                .thenReturn(List.of(booking(1, 1, 2)))
+                .thenReturn(List.of());
+        assertThat(index.overlaps(1L, now().plusDays(1), now().plusDays(2)), is(true));
+
+        index.evict(List.of(1L));
+
+        assertThat(index.size(), equalTo(0));
+        assertThat(index.overlaps(1L, now().plusDays(1), now().plusDays(2)), is(false));
+        verify(bookingRepository, times(2)).findByItem_IdIsAndStatusIs(1L, APPROVED);
+    }
+}
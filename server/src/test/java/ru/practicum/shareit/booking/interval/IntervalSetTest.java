@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.interval;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class IntervalSetTest {
+    private IntervalSet intervals;
+
+    @BeforeEach
+    void initialize() {
+        intervals = new IntervalSet();
+        intervals.add(1, 10, 20);
+        intervals.add(2, 30, 40);
+        intervals.add(3, 50, 60);
+    }
+
+    @Test
+    void shouldDetectOverlaps() {
+        assertThat(intervals.overlaps(15, 16), is(true));
+        assertThat(intervals.overlaps(5, 11), is(true));
+        assertThat(intervals.overlaps(39, 51), is(true));
+        assertThat(intervals.overlaps(0, 100), is(true));
+    }
+
+    @Test
+    void shouldAllowAdjacentAndFreeIntervals() {
+        assertThat(intervals.overlaps(20, 30), is(false));
+        assertThat(intervals.overlaps(0, 10), is(false));
+        assertThat(intervals.overlaps(60, 70), is(false));
+        assertThat(intervals.overlaps(35, 35), is(false));
+    }
+
+    @Test
+    void shouldRejectOverlappingAdd() {
+        assertThat(intervals.add(4, 19, 31), is(false));
+        assertThat(intervals.add(4, 20, 30), is(true));
+        assertThat(intervals.size(), equalTo(4));
+        assertThat(intervals.overlaps(25, 26), is(true));
+    }
+
+    @Test
+    void shouldRemoveById() {
+        intervals.remove(9, 30);
+        assertThat(intervals.overlaps(35, 36), is(true));
+        intervals.remove(2, 30);
+        assertThat(intervals.overlaps(35, 36), is(false));
+        assertThat(intervals.size(), equalTo(2));
+    }
+
+    @Test
+    void shouldPruneFinishedIntervals() {
+        intervals.prune(40);
+        assertThat(intervals.size(), equalTo(1));
+        assertThat(intervals.overlaps(10, 45), is(false));
+        assertThat(intervals.overlaps(55, 56), is(true));
+    }
+
+    @Test
+    void shouldListBusyIntervalsClippedToRange() {
+        assertThat(intervals.busy(15, 55), equalTo(new long[]{15, 20, 30, 40, 50, 55}));
+        assertThat(intervals.busy(20, 30), equalTo(new long[0]));
+        assertThat(intervals.busy(0, 100), equalTo(new long[]{10, 20, 30, 40, 50, 60}));
+        assertThat(intervals.busy(60, 10), equalTo(new long[0]));
+    }
+
+    @Test
+    void shouldGrowBeyondInitialCapacity() {
+        for (var i = 0; i < 100; i++)
+            assertThat(intervals.add(100 + i, 1000 + i * 10, 1005 + i * 10), is(true));
+        assertThat(intervals.size(), equalTo(103));
+        assertThat(intervals.overlaps(1502, 1503), is(true));
+        assertThat(intervals.overlaps(1506, 1509), is(false));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.interval;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_ROLLED_BACK;
+
+/**
+ * Подтверждение, откат и повторное подтверждение той же брони другим потоком: откаченный
+ * резерв снимается раньше, чем отпускается замок вещи, поэтому следующий владелец замка
+ * не видит его и не получает ложный конфликт. Синхронизации вызываются так же, как их
+ * вызывает менеджер транзакций, — в порядке {@code getOrder()}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ItemLocksTest {
+    private static final long ITEM_ID = 1;
+    private final LocalDateTime start = now().plusDays(1);
+    private final LocalDateTime end = start.plusDays(1);
+    private final ItemLocks itemLocks = new ItemLocks();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void initialize() {
+        index = new BookingIntervalIndex(bookingRepository, itemLocks);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /**
+     * Подтверждение брони в отдельной транзакции, как в {@code BookingServiceImpl.approve}.
+     */
+    private boolean approve(Long bookingId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemLocks.lockUntilCompletion(ITEM_ID);
+            return index.reserve(ITEM_ID, bookingId, start, end);
+        } finally {
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), STATUS_COMMITTED);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReleaseReservationBeforeUnlockingOnRollback() {
+        itemLocks.lockUntilCompletion(ITEM_ID);
+        assertThat(index.reserve(ITEM_ID, 1L, start, end), is(true));
+
+        for (var synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(STATUS_ROLLED_BACK);
+            if (!itemLocks.stripe(ITEM_ID).isHeldByCurrentThread())
+                assertThat(index.overlaps(ITEM_ID, start, end), is(false));
+        }
+        assertThat(itemLocks.stripe(ITEM_ID).isLocked(), is(false));
+    }
+
+    @Test
+    void shouldApproveAgainAfterConcurrentRollback() throws Exception {
+        itemLocks.lockUntilCompletion(ITEM_ID);
+        assertThat(index.reserve(ITEM_ID, 1L, start, end), is(true));
+        var second = CompletableFuture.supplyAsync(() -> approve(2L));
+        while (!itemLocks.stripe(ITEM_ID).hasQueuedThreads()) Thread.onSpinWait();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), STATUS_ROLLED_BACK);
+
+        assertThat(second.get(10, TimeUnit.SECONDS), is(true));
+        assertThat(index.overlaps(ITEM_ID, start, end), is(true));
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.time.LocalDateTime.now;
+import static java.util.List.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Одобрение пересекающихся броней одной вещи из многих потоков сразу: каждая вещь должна
+ * получить ровно одно одобрение, остальные попытки — отказ с конфликтом.
+ * Данные коммитятся по-настоящему, поэтому контекст после теста пересоздаётся.
+ */
+@SpringBootTest
+@DirtiesContext
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingApprovalConcurrencyTest {
+    private static final int ITEMS = 8;
+    private static final int BOOKINGS_PER_ITEM = 4;
+    private static final int ATTEMPTS_PER_BOOKING = 2;
+    private static final int THREADS = 16;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void initialize() {
+        owner = userService.save(new UserDto(null, "Owner", "concurrency-owner@mail.com"));
+        booker = userService.save(new UserDto(null, "Booker", "concurrency-booker@mail.com"));
+        for (var i = 0; i < ITEMS; i++) {
+            var item = itemService.save(
+                    new ItemDto(null, "Item" + i, "Item" + i, true, owner.getId(), null), null, owner.getId());
+            itemIds.add(item.getId());
+            var itemAllFieldsDto = new ItemAllFieldsDto(item.getId(), item.getName(), item.getDescription(),
+                    true, owner.getId(), null, null, null, of());
+            for (var j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                var booking = BookingSavingDto.builder()
+                        .start(now().plusDays(1).plusHours(j))
+                        .end(now().plusDays(2).plusHours(j))
+                        .itemId(item.getId())
+                        .build();
+                bookingIds.add(bookingService.save(booking, itemAllFieldsDto, booker.getId()).getId());
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(booker.getId());
+        userService.delete(owner.getId());
+    }
+
+    @Test
+    void approveOverlappingBookingsConcurrentlyTest() throws Exception {
+        var tasks = new ArrayList<Long>();
+        for (var i = 0; i < ATTEMPTS_PER_BOOKING; i++) tasks.addAll(bookingIds);
+        Collections.shuffle(tasks);
+        var approvals = new AtomicInteger();
+        var unexpected = new ConcurrentLinkedQueue<Throwable>();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var bookingId : tasks)
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.approve(bookingId, true, owner.getId());
+                        approvals.incrementAndGet();
+                    } catch (ConflictException | ValidationException | OptimisticLockingFailureException e) {
+                        // проиграл гонку — так и должно быть
+                    } catch (RuntimeException e) {
+                        unexpected.add(e);
+                    }
+                    return null;
+                }));
+            start.countDown();
+            for (var future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unexpected, empty());
+        assertThat(approvals.get(), equalTo(ITEMS));
+        for (var itemId : itemIds) {
+            assertThat(bookingRepository.findByItem_IdIsAndStatusIs(itemId, APPROVED), hasSize(1));
+            assertThat(itemRepository.findById(itemId).orElseThrow().getVersion(), equalTo(1L));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Подтверждённая бронь удаляется каскадом вместе с бронировавшим, мимо индекса интервалов:
+ * после удаления её время снова должно быть свободно и для брони, и в календаре вещи. Данные коммитятся по-настоящему,
+ * пользователи удаляются в конце.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingIntervalEvictionTest {
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto nextBooker;
+    private ItemDto item;
+
+    @BeforeEach
+    void initialize() {
+        owner = userService.save(new UserDto(null, "Owner", "eviction-owner@mail.com"));
+        booker = userService.save(new UserDto(null, "Booker", "eviction-booker@mail.com"));
+        nextBooker = userService.save(new UserDto(null, "Next", "eviction-next@mail.com"));
+        item = itemService.save(new ItemDto(null, "Tent", "Two-person tent", true, owner.getId(), null),
+                null, owner.getId());
+        var booking = book(booker);
+        bookingService.approve(booking, true, owner.getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(booker.getId());
+        userService.delete(nextBooker.getId());
+        userService.delete(owner.getId());
+    }
+
+    private Long book(UserDto user) {
+        var booking = BookingSavingDto.builder()
+                .start(day.atTime(10, 0))
+                .end(day.atTime(18, 0))
+                .itemId(item.getId())
+                .build();
+        return bookingService.save(booking, item, user.getId()).getId();
+    }
+
+    @Test
+    void deleteBookerFreesSlotTest() {
+        userService.delete(booker.getId());
+
+        var booking = book(nextBooker);
+        var approved = bookingService.approve(booking, true, owner.getId());
+
+        assertThat(approved.getStatus(), equalTo(APPROVED.name()));
+    }
+
+    @Test
+    void deleteBookerFreesAvailabilityTest() {
+        assertThat(itemService.getAvailability(item.getId(), day, day),
+                contains(hasProperty("available", is(true)), hasProperty("available", is(false)),
+                        hasProperty("available", is(true))));
+
+        userService.delete(booker.getId());
+
+        assertThat(itemService.getAvailability(item.getId(), day, day), contains(
+                new AvailabilitySlotDto(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), true)));
+    }
+}
@@ -7,21 +7,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.dto.ItemAllFieldsDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Cursor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 
 import static java.time.LocalDateTime.now;
+import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.booking.enums.BookingState.REJECTED;
 import static ru.practicum.shareit.booking.enums.BookingState.WAITING;
 
 
@@ -211,4 +225,174 @@ class BookingServiceImplTest {
         assertThat(approved.getId(),
                 equalTo(booking.getId()));
     }
-}
\ No newline at end of file
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end) {
+        var booking = Booking.builder()
+                .start(start)
+                .end(end)
+                .item(entityManager.find(Item.class, itemDto.getId()))
+                .booker(entityManager.find(User.class, bookingAllFieldsDto.getBooker().getId()))
+                .status(REJECTED)
+                .build();
+        entityManager.persist(booking);
+        return booking;
+    }
+
+    @Test
+    void getLastAndNextBookingsTest() {
+        persistBooking(now().minusDays(5), now().minusDays(4));
+        var last = persistBooking(now().minusDays(3), now().minusDays(2));
+        var next = persistBooking(now().plusDays(1), now().plusDays(2));
+        persistBooking(now().plusDays(3), now().plusDays(4));
+
+        var lastBookings = bookingService.getLastBookings(of(itemDto.getId()));
+        var nextBookings = bookingService.getNextBookings(of(itemDto.getId()));
+
+        assertThat(lastBookings.get(itemDto.getId()).getId(), equalTo(last.getId()));
+        assertThat(lastBookings.get(itemDto.getId()).getBookerId(), equalTo(last.getBooker().getId()));
+        assertThat(nextBookings.get(itemDto.getId()).getId(), equalTo(next.getId()));
+        assertThat(nextBookings.get(itemDto.getId()).getBookerId(), equalTo(next.getBooker().getId()));
+    }
+
+    @Test
+    void getLastAndNextBookingsForOtherItemsTest() {
+        persistBooking(now().minusDays(3), now().minusDays(2));
+        persistBooking(now().plusDays(1), now().plusDays(2));
+
+        assertThat(bookingService.getLastBookings(of(itemDto.getId() + 1)), anEmptyMap());
+        assertThat(bookingService.getNextBookings(of()), anEmptyMap());
+    }
+
+    @Test
+    void getAllBookingsUnalignedOffsetTest() {
+        var start = now().plusDays(10);
+        for (var i = 0; i < 4; i++)
+            persistBooking(start.plusDays(i), start.plusDays(i).plusHours(1));
+        var all = bookingService.getAllBookings(bookingAllFieldsDto.getBooker().getId(), null, null, null);
+
+        var page = bookingService.getAllBookings(bookingAllFieldsDto.getBooker().getId(), null, 1, 2);
+
+        assertThat(page, contains(all.get(1), all.get(2)));
+    }
+
+    @Test
+    void scrollBookingsTest() {
+        var start = now().plusDays(10).truncatedTo(SECONDS);
+        persistBooking(start, start.plusHours(1));
+        persistBooking(start, start.plusHours(2));
+        persistBooking(start.minusDays(1), start.minusDays(1).plusHours(1));
+        persistBooking(start.plusDays(1), start.plusDays(1).plusHours(1));
+        var bookerId = bookingAllFieldsDto.getBooker().getId();
+        var all = bookingService.getAllBookings(bookerId, null, null, null);
+
+        var scrolled = new ArrayList<BookingAllFieldsDto>();
+        var after = "";
+        var pages = 0;
+        while (after != null) {
+            var window = bookingService.scrollBookings(bookerId, null, after, 2);
+            scrolled.addAll(window.getContent());
+            after = window.hasNext()
+                    ? Cursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1))
+                    : null;
+            pages++;
+        }
+
+        assertThat(pages, equalTo(3));
+        assertThat(scrolled, equalTo(all));
+    }
+
+    @Test
+    void scrollBookingsByOwnerIdTest() {
+        var start = now().plusDays(1).truncatedTo(SECONDS);
+        persistBooking(start, start.plusDays(1));
+        var window = bookingService.scrollBookingsByOwnerId(owner.getId(), null, "", 1);
+        var next = bookingService.scrollBookingsByOwnerId(owner.getId(), null,
+                Cursor.encode((KeysetScrollPosition) window.positionAt(0)), 1);
+
+        assertThat(window.hasNext(), is(true));
+        assertThat(next.hasNext(), is(false));
+        assertThat(next.getContent().get(0).getId(), not(equalTo(window.getContent().get(0).getId())));
+    }
+
+    private BookingAllFieldsDto saveBooking(LocalDateTime start, LocalDateTime end) {
+        var booking = bookingService.save(
+                BookingSavingDto.builder()
+                        .start(start)
+                        .end(end)
+                        .itemId(itemDto.getId())
+                        .build(),
+                itemService.get(itemDto.getId(), owner.getId()),
+                bookingAllFieldsDto.getBooker().getId());
+        entityManager.flush();
+        entityManager.clear();
+        return booking;
+    }
+
+    @Test
+    void saveBeforeApprovedBookingTest() {
+        var approved = saveBooking(now().plusDays(5), now().plusDays(6));
+        bookingService.approve(approved.getId(), true, owner.getId());
+
+        var earlier = saveBooking(now().plusDays(1), now().plusDays(2));
+
+        assertThat(earlier.getId(), notNullValue());
+    }
+
+    @Test
+    void saveOverlappingApprovedBookingTest() {
+        var approved = saveBooking(now().plusDays(5), now().plusDays(6));
+        bookingService.approve(approved.getId(), true, owner.getId());
+
+        assertThrows(NotFoundException.class, () -> saveBooking(now().plusDays(4), now().plusDays(5).plusHours(1)));
+    }
+
+    @Test
+    void approveOverlappingBookingTest() {
+        var first = saveBooking(now().plusDays(5), now().plusDays(6));
+        var second = saveBooking(now().plusDays(5).plusHours(12), now().plusDays(7));
+        bookingService.approve(first.getId(), true, owner.getId());
+
+        assertThrows(ConflictException.class, () -> bookingService.approve(second.getId(), true, owner.getId()));
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        var from = LocalDate.now().plusDays(3);
+        var approved = saveBooking(from.plusDays(1).atTime(12, 0), from.plusDays(2).atTime(12, 0));
+        saveBooking(from.atTime(10, 0), from.atTime(11, 0));
+        bookingService.approve(approved.getId(), true, owner.getId());
+
+        var slots = itemService.getAvailability(itemDto.getId(), from, from.plusDays(3));
+
+        assertThat(slots, hasSize(3));
+        assertThat(slots.get(0).getStart(), equalTo(from.atStartOfDay()));
+        assertThat(slots.get(1).getStart(), equalTo(approved.getStart()));
+        assertThat(slots.get(1).getEnd(), equalTo(approved.getEnd()));
+        assertThat(slots.get(1).getAvailable(), is(false));
+        assertThat(slots.get(2).getEnd(), equalTo(from.plusDays(4).atStartOfDay()));
+    }
+
+    @Test
+    void getAvailabilityInPastTest() {
+        assertThrows(ValidationException.class,
+                () -> itemService.getAvailability(itemDto.getId(), LocalDate.now().minusDays(1), null));
+    }
+
+
+    @Test
+    void saveAllTest() {
+        var bookerId = bookingAllFieldsDto.getBooker().getId();
+        var items = itemService.getSummaries(of(itemDto.getId(), 999L));
+        var results = bookingService.saveAll(of(
+                BookingSavingDto.builder().start(now().plusDays(1)).end(now().plusDays(2)).itemId(itemDto.getId()).build(),
+                BookingSavingDto.builder().start(now().minusDays(2)).end(now().minusDays(1)).itemId(itemDto.getId()).build(),
+                BookingSavingDto.builder().start(now().plusDays(1)).end(now().plusDays(2)).itemId(999L).build(),
+                BookingSavingDto.builder().start(now().plusDays(2)).itemId(itemDto.getId()).build()),
+                items, bookerId);
+        assertThat(results.stream().map(BatchResultDto::getStatus).toList(), contains(200, 400, 404, 400));
+        var saved = results.get(0).getResult();
+        assertThat(saved.getStatus(), equalTo(WAITING.name()));
+        assertThat(saved.getBooker().getId(), equalTo(bookerId));
+        assertThat(bookingService.getAllBookings(bookerId, null, null, null), hasSize(2));
+    }
+}
@@ -8,19 +8,25 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.dto.BookingAllFieldsDto;
 import ru.practicum.shareit.booking.dto.BookingSavingDto;
 import ru.practicum.shareit.booking.enums.BookingTimeState;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.interval.ItemLocks;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.References;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static java.util.Optional.ofNullable;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -43,10 +49,19 @@ class BookingServiceUnitTest {
     private UserService userService;
     private UserDto userDto;
     private Booking booking;
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemLocks itemLocks;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private References references;
 
     @BeforeEach
     void initialize() {
-        bookingService = new BookingServiceImpl(bookingRepository, userService);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, itemLocks);
+        bookingService = new BookingServiceImpl(
+                bookingRepository, userService, bookingIntervalIndex, itemLocks, itemRepository, references);
         bookingCreatedDto = BookingSavingDto.builder()
                 .id(1L)
                 .start(now())
@@ -66,7 +81,7 @@ class BookingServiceUnitTest {
                 .id(1L)
                 .start(now())
                 .end(now().plusHours(2))
-                .item(new Item(1L, "pen", "blue pen", true, mapToUser(userDto), null))
+                .item(new Item(1L, "pen", "blue pen", true, mapToUser(userDto), null, null, null))
                 .booker(new User(2L, "Maggie", "maggie@mail.com"))
                 .status(WAITING)
                 .build();
@@ -75,8 +90,6 @@ class BookingServiceUnitTest {
     private BookingAllFieldsDto saveBookingDto() {
         when(userService.get(any()))
                 .thenReturn(userDto);
-        when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyLong(), any(), any()))
-                .thenReturn(of());
         when(bookingRepository.save(any()))
                 .thenReturn(booking);
         return bookingService.save(
@@ -205,8 +218,7 @@ class BookingServiceUnitTest {
     void saveBookingTakenItemTest() {
         when(userService.get(anyLong()))
                 .thenReturn(userDto);
-        when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyLong(), any(), any()))
-                .thenReturn(of(booking));
+        bookingIntervalIndex.reserve(booking.getItem().getId(), 5L, booking.getStart(), booking.getEnd());
         var exception = assertThrows(NotFoundException.class,
                 () -> bookingService.save(
                         bookingCreatedDto,
@@ -241,11 +253,14 @@ class BookingServiceUnitTest {
                 booking.getEnd(),
                 booking.getItem(),
                 booking.getBooker(),
-                APPROVED);
+                APPROVED,
+                null);
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(ofNullable(booking));
         when(bookingRepository.save(any()))
                 .thenReturn(approved);
+        when(itemRepository.incrementVersion(any(), any()))
+                .thenReturn(1);
         var approvedFrom = bookingService.approve(
                 booking.getId(),
                 true,
@@ -255,6 +270,37 @@ class BookingServiceUnitTest {
         assertEquals(approvedFrom.getId(), approved.getId());
     }
 
+    @Test
+    void approveOverlappingBookingTest() {
+        bookingIntervalIndex.reserve(booking.getItem().getId(), 5L, booking.getEnd().minusHours(1), booking.getEnd().plusHours(1));
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        when(itemRepository.incrementVersion(any(), any()))
+                .thenReturn(1);
+        var exception = assertThrows(ConflictException.class,
+                () -> bookingService.approve(
+                        booking.getId(),
+                        true,
+                        userDto.getId())
+        );
+        assertEquals("Вещь уже забронирована на это время: " + booking.getItem().getName(), exception.getMessage());
+    }
+
+    @Test
+    void approveConcurrentlyChangedItemTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(ofNullable(booking));
+        when(itemRepository.incrementVersion(any(), any()))
+                .thenReturn(0);
+        assertThrows(ConflictException.class,
+                () -> bookingService.approve(
+                        booking.getId(),
+                        true,
+                        userDto.getId())
+        );
+        assertFalse(bookingIntervalIndex.overlaps(booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
     @Test
     void approveBookingByBookerTest() {
         when(bookingRepository.findById(anyLong()))
@@ -460,7 +506,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdPastStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(any(), any()))
                 .thenReturn(of(booking));
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -475,7 +521,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(any()))
                 .thenReturn(of(booking));
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -490,7 +536,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdAllStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(any()))
                 .thenReturn(of(booking));
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -505,7 +551,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdFutureStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(any(), any()))
                 .thenReturn(of(booking));
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -521,7 +567,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdCurrentStateTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any()))
                 .thenReturn(of(booking));
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -630,7 +676,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdPaginationNotNullTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc(any(), any()))
                 .thenReturn(empty());
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -644,7 +690,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdPaginationPastTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdAndEndBeforeOrderByStartDesc(any(), any(), any()))
                 .thenReturn(empty());
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -658,7 +704,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdPaginationCurrentTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
                 .thenReturn(empty());
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
@@ -672,7 +718,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsByOwnerIdPaginationFutureTest() {
         saveBookingDto();
-        when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any()))
+        when(bookingRepository.findBookingsByItem_Owner_IdAndStartAfterOrderByStartDesc(any(), any(), any()))
                 .thenReturn(empty());
         var bookings = bookingService.getBookingsByOwnerId(
                 userDto.getId(),
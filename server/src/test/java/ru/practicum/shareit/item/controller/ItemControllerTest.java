@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.controller;
 
+import ru.practicum.shareit.utils.BatchResultDto;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,9 +12,14 @@ import ru.practicum.shareit.error.NotFoundException;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.booking.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
 
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -24,7 +30,10 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 import static java.time.LocalDateTime.*;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.utils.HttpCaching.INVALIDATE_HEADER;
 import static java.util.List.*;
 
 
@@ -141,6 +150,25 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAvailabilityTest() throws Exception {
+        var from = LocalDate.now();
+        var busy = new AvailabilitySlotDto(from.atStartOfDay().plusDays(1), from.atStartOfDay().plusDays(2), false);
+        when(itemService.getAvailability(1L, from, from.plusDays(3)))
+                .thenReturn(of(
+                        new AvailabilitySlotDto(from.atStartOfDay(), busy.getStart(), true),
+                        busy,
+                        new AvailabilitySlotDto(busy.getEnd(), from.atStartOfDay().plusDays(4), true)));
+        mvc.perform(get("/items/{itemId}/availability", 1)
+                        .header(headerSharerUserId, 1)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(3).toString())
+                )
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].available", is(false)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void updateTest() throws Exception {
         when(itemService.update(any(), anyLong()))
@@ -251,4 +279,54 @@ class ItemControllerTest {
                 )
                 .andExpect(status().isBadRequest());
     }
+
+
+    @Test
+    void saveAllTest() throws Exception {
+        var itemDto = new ItemDto(1L, "Pen", "Blue pen", true, 1L, null);
+        when(itemService.saveAll(anyList(), anyLong()))
+                .thenReturn(of(
+                        BatchResultDto.saved(0, itemDto),
+                        BatchResultDto.failed(1, new ValidationException("Название вещи не может быть пустым"))));
+        mvc.perform(post("/items/batch")
+                        .header(headerSharerUserId, 1)
+                        .content(mapper.writeValueAsString(of(itemDto, ItemDto.builder().build())))
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].result.name", is(itemDto.getName())))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error", is("Название вещи не может быть пустым")));
+    }
+
+    @Test
+    void getItemNotModifiedTest() throws Exception {
+        when(itemService.getEtag(1L, 1L))
+                .thenReturn("\"v1\"");
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header(headerSharerUserId, 1)
+                        .header(IF_NONE_MATCH, "\"v1\"")
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, "\"v1\""));
+        verify(itemService, never()).get(anyLong(), anyLong());
+    }
+
+    @Test
+    void updateInvalidatesRequestTest() throws Exception {
+        when(itemService.update(any(), anyLong()))
+                .thenReturn(itemDto);
+        mvc.perform(patch("/items/{itemId}", 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header(headerSharerUserId, 1)
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(INVALIDATE_HEADER, "/requests/" + itemDto.getRequestId()));
+    }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что отзывы к вещам читаются одним запросом вместе с именами авторов: у каждого
+ * отзыва свой автор, но отдельного запроса за авторами нет.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemStatementCountTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final int ITEMS = 3;
+    private static final int COMMENTS_PER_ITEM = 3;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final MockMvc mvc;
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void initialize() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = persist(new User(null, "Owner", "comments-owner@mail.com"));
+        for (var i = 0; i < ITEMS; i++) {
+            item = persist(new Item(null, "Item" + i, "Item" + i, true, owner, null, null, null));
+            for (var j = 0; j < COMMENTS_PER_ITEM; j++) {
+                var author = persist(new User(null, "Author" + i + j, "comments-author" + i + j + "@mail.com"));
+                persist(new Comment(null, "Comment" + j, item, author, now().minusDays(j)));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private long statements(MockHttpServletRequestBuilder request, String comments) throws Exception {
+        statistics.clear();
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(comments, hasSize(COMMENTS_PER_ITEM)))
+                .andExpect(jsonPath(comments + "[0].authorName", startsWith("Author")));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getItemsTest() throws Exception {
+        var request = get("/items").header(HEADER_SHARER_USER_ID, owner.getId());
+        assertThat(statements(request, "$[" + (ITEMS - 1) + "].comments"), equalTo(3L));
+    }
+
+    @Test
+    void getItemTest() throws Exception {
+        var request = get("/items/{itemId}", item.getId()).header(HEADER_SHARER_USER_ID, owner.getId());
+        assertThat(statements(request, "$.comments"), equalTo(3L));
+    }
+}
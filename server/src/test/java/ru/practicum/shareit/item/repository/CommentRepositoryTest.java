@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.List.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+
+@DataJpaTest
+class CommentRepositoryTest {
+    private final LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    CommentRepository commentRepository;
+    Item pen;
+    Item book;
+    Item lamp;
+    Comment first;
+    Comment second;
+    Comment third;
+    Comment bookComment;
+
+    @BeforeEach
+    void beforeEach() {
+        var user = entityManager.persist(User.builder()
+                .name("Smith")
+                .email("smith@mail.ru")
+                .build());
+        pen = entityManager.persist(item("pen", user));
+        book = entityManager.persist(item("book", user));
+        lamp = entityManager.persist(item("lamp", user));
+        first = entityManager.persist(comment("first", pen, user, created));
+        second = entityManager.persist(comment("second", pen, user, created.plusDays(1)));
+        third = entityManager.persist(comment("third", pen, user, created.plusDays(2)));
+        bookComment = entityManager.persist(comment("book", book, user, created));
+        entityManager.persist(comment("lamp", lamp, user, created));
+    }
+
+    private Item item(String name, User owner) {
+        return Item.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    private Comment comment(String text, Item item, User author, LocalDateTime created) {
+        return Comment.builder()
+                .text(text)
+                .item(item)
+                .author(author)
+                .created(created)
+                .build();
+    }
+
+    private static List<Long> ids(List<CommentView> comments) {
+        return comments.stream().map(CommentView::getId).toList();
+    }
+
+    @Test
+    void shouldReturnCommentsOnlyForRequestedItems() {
+        var comments = commentRepository.findLimitedByItemIds(of(pen.getId(), book.getId()), false, 10);
+        assertThat(ids(comments), contains(first.getId(), second.getId(), third.getId(), bookComment.getId()));
+    }
+
+    @Test
+    void shouldReturnAuthorNameAndItemId() {
+        var comment = commentRepository.findLimitedByItemIds(of(book.getId()), false, 10).get(0);
+        assertThat(comment.getItemId(), equalTo(book.getId()));
+        assertThat(comment.getText(), equalTo("book"));
+        assertThat(comment.getAuthorName(), equalTo("Smith"));
+        assertThat(comment.getCreated(), equalTo(created));
+    }
+
+    @Test
+    void shouldLimitOldestCommentsPerItem() {
+        var comments = commentRepository.findLimitedByItemIds(of(pen.getId(), book.getId()), false, 2);
+        assertThat(ids(comments), contains(first.getId(), second.getId(), bookComment.getId()));
+    }
+
+    @Test
+    void shouldLimitNewestCommentsPerItem() {
+        var comments = commentRepository.findLimitedByItemIds(of(pen.getId()), true, 2);
+        assertThat(ids(comments), contains(third.getId(), second.getId()));
+    }
+}
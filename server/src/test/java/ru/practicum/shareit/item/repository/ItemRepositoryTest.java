@@ -5,10 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.Map.of;
 import static org.hamcrest.Matchers.*;
 
 
@@ -72,4 +76,45 @@ class ItemRepositoryTest {
         var items = itemRepository.search("brick");
         assertThat(items, empty());
     }
+
+    @Test
+    void shouldSearchAfterId() {
+        var items = itemRepository.searchAfter("pen", item1.getId(), Limit.of(1));
+        assertThat(items, contains(item2));
+    }
+
+    @Test
+    void shouldScrollOwnerItemsById() {
+        var first = itemRepository.findAllByOwner_IdIsOrderById(user.getId(), ScrollPosition.keyset(), Limit.of(2));
+        var second = itemRepository.findAllByOwner_IdIsOrderById(user.getId(),
+                ScrollPosition.forward(of("id", item2.getId())), Limit.of(2));
+        assertThat(first.getContent(), contains(item1, item2));
+        assertThat(first.hasNext(), is(true));
+        assertThat(second.getContent(), contains(item3));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    void shouldSliceOwnerItemsWithoutTotal() {
+        var slice = itemRepository.findAllByOwner_IdIs(user.getId(), PageRequest.of(0, 2));
+        assertThat(slice.getContent(), hasSize(2));
+        assertThat(slice.hasNext(), is(true));
+        assertThat(itemRepository.countByOwner_IdIs(user.getId()), equalTo(3L));
+    }
+
+    @Test
+    void shouldFindSummaryWithoutRequest() {
+        var summary = itemRepository.findSummaryById(item2.getId()).orElseThrow();
+        assertThat(summary.getName(), equalTo("pen2"));
+        assertThat(summary.getAvailable(), is(true));
+        assertThat(summary.getOwnerId(), equalTo(user.getId()));
+        assertThat(summary.getRequestId(), nullValue());
+        assertThat(itemRepository.findSummaryById(-1L).isPresent(), is(false));
+    }
+
+    @Test
+    void shouldCountSearchResults() {
+        assertThat(itemRepository.countSearch("old"), equalTo(1L));
+        assertThat(itemRepository.countSearch("pen"), equalTo(3L));
+    }
 }
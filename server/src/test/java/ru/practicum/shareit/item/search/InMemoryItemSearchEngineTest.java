@@ -0,0 +1,237 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.List.of;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_ROLLED_BACK;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_UNKNOWN;
+import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItemDto;
+
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    private final User owner = new User(1L, "Smith", "smith@mail.ru");
+    private final Map<Long, Item> database = new HashMap<>();
+    @Mock
+    private ItemRepository itemRepository;
+    private InMemoryItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void initialize() {
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        save(new Item(1L, "Дрель", "Простая дрель", true, owner, null, null, null));
+        save(new Item(2L, "Отвёртка", "Аккумуляторная отвёртка, подходит как дрель", true, owner, null, null, null));
+        save(new Item(3L, "Дрель ударная", "Дрель с аккумулятором", true, owner, null, null, null));
+        save(new Item(4L, "Pen", "Blue pen", false, owner, null, null, null));
+    }
+
+    private void save(Item item) {
+        database.put(item.getId(), item);
+        searchEngine.index(item);
+    }
+
+    private Collection<Long> search(String text, Pageable pageable) {
+        return searchEngine.search(text, pageable)
+                .stream()
+                .map(ItemDto::getId)
+                .collect(toList());
+    }
+
+    @Test
+    void shouldRankNameMatchesFirst() {
+        assertThat(search("ДРЕЛЬ", Pageable.unpaged()), contains(1L, 3L, 2L));
+    }
+
+    @Test
+    void shouldMatchAllWordsByPrefix() {
+        assertThat(search("дрель аккум", Pageable.unpaged()), contains(3L, 2L));
+    }
+
+    @Test
+    void shouldSkipUnavailableItems() {
+        assertThat(search("pen", Pageable.unpaged()), empty());
+    }
+
+    @Test
+    void shouldPageRankedResults() {
+        assertThat(search("дрель", PageRequest.of(1, 2)), contains(2L));
+    }
+
+    @Test
+    void shouldScrollRankedResults() {
+        var first = searchEngine.scroll("дрель", ScrollPosition.keyset(), Limit.of(2));
+        var second = searchEngine.scroll("дрель", (KeysetScrollPosition) first.positionAt(1), Limit.of(2));
+        assertThat(first.map(ItemDto::getId).getContent(), contains(1L, 3L));
+        assertThat(first.hasNext(), is(true));
+        assertThat(second.map(ItemDto::getId).getContent(), contains(2L));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    void shouldKeepCursorStableAcrossWrites() {
+        var first = searchEngine.scroll("дрель аккум", ScrollPosition.keyset(), Limit.of(1));
+        for (var id = 5L; id < 55; id++)
+            save(new Item(id, "Молоток", "Столярный молоток", true, owner, null, null, null));
+        var second = searchEngine.scroll("дрель аккум", (KeysetScrollPosition) first.positionAt(0), Limit.of(1));
+        assertThat(first.map(ItemDto::getId).getContent(), contains(3L));
+        assertThat(second.map(ItemDto::getId).getContent(), contains(2L));
+    }
+
+    @Test
+    void shouldCountMatches() {
+        assertThat(searchEngine.count("дрель"), equalTo(3L));
+        assertThat(searchEngine.count("pen"), equalTo(0L));
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        save(new Item(4L, "Pen", "Red pen", true, owner, null, null, null));
+        save(new Item(1L, "Молоток", "Тяжёлый", true, owner, null, null, null));
+        searchEngine.remove(3L);
+        assertThat(search("pen", Pageable.unpaged()), contains(4L));
+        assertThat(search("дрель", Pageable.unpaged()), contains(2L));
+    }
+
+    @Test
+    void shouldAnswerWithoutRepository() {
+        var found = searchEngine.search("ударная", Pageable.unpaged());
+        assertThat(found, contains(mapToItemDto(database.get(3L))));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void shouldFollowAvailability() {
+        save(new Item(1L, "Дрель", "Простая дрель", false, owner, null, null, null));
+        save(new Item(4L, "Pen", "Blue pen", true, owner, null, null, null));
+        assertThat(search("дрель", Pageable.unpaged()), contains(3L, 2L));
+        assertThat(search("pen", Pageable.unpaged()), contains(4L));
+    }
+
+    @Test
+    void shouldRevertChangesOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            save(new Item(5L, "Дрель новая", "Новая", true, owner, null, null, null));
+            save(new Item(1L, "Молоток", "Тяжёлый", true, owner, null, null, null));
+            searchEngine.remove(3L);
+            assertThat(search("дрель", Pageable.unpaged()), contains(5L, 2L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(search("дрель", Pageable.unpaged()), contains(1L, 3L, 2L));
+    }
+
+    @Test
+    void shouldKeepChangesOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.remove(3L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> {
+                        synchronization.afterCommit();
+                        synchronization.afterCompletion(STATUS_COMMITTED);
+                    });
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(search("дрель", Pageable.unpaged()), contains(1L, 2L));
+    }
+
+    @Test
+    void shouldDropChangesOnUnknownOutcome() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            save(new Item(5L, "Дрель новая", "Новая", true, owner, null, null, null));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_UNKNOWN));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(search("дрель", Pageable.unpaged()), contains(1L, 3L, 2L));
+    }
+
+    @Test
+    void shouldHideUncommittedChangesFromOtherThreads() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            save(new Item(5L, "Дрель новая", "Новая", true, owner, null, null, null));
+            searchEngine.remove(1L);
+            var other = CompletableFuture.supplyAsync(() -> search("дрель", Pageable.unpaged())).get();
+            assertThat(other, contains(1L, 3L, 2L));
+            assertThat(search("дрель", Pageable.unpaged()), contains(3L, 5L, 2L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldIndexIdsBeyondIntRange() {
+        var id = Integer.MAX_VALUE + 10L;
+        save(new Item(id, "Лобзик", "Электрический лобзик", true, owner, null, null, null));
+        assertThat(search("лобзик", Pageable.unpaged()), contains(id));
+        searchEngine.remove(id);
+        assertThat(search("лобзик", Pageable.unpaged()), empty());
+    }
+
+    @Test
+    void shouldRebuildFromRepository() {
+        when(itemRepository.findAll())
+                .thenReturn(of(database.get(1L)));
+        searchEngine.rebuild();
+        assertThat(search("дрель", Pageable.unpaged()), contains(1L));
+    }
+
+    @Test
+    void shouldKeepChangesCommittedDuringRebuild() throws Exception {
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return of(database.get(1L));
+        });
+        var rebuild = CompletableFuture.runAsync(searchEngine::rebuild);
+        reading.await();
+        var write = new Thread(() -> searchEngine.index(new Item(5L, "Дрель", "Новая дрель", true, owner, null, null, null)));
+        write.start();
+        while (write.isAlive() && write.getState() != Thread.State.WAITING) Thread.onSpinWait();
+        release.countDown();
+        rebuild.get(10, TimeUnit.SECONDS);
+        write.join();
+        assertThat(search("дрель", Pageable.unpaged()), contains(1L, 5L));
+    }
+}
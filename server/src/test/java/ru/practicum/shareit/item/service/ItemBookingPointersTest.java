@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingPointersTest {
+    private final ItemBookingPointers itemBookingPointers;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final EntityManager entityManager;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void initialize() {
+        owner = userService.save(new UserDto(null, "Owner", "pointers-owner@mail.com"));
+        booker = userService.save(new UserDto(null, "Booker", "pointers-booker@mail.com"));
+        item = itemService.save(new ItemDto(null, "Drill", "Drill", true, owner.getId(), null), null, owner.getId());
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.save(BookingSavingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(item.getId())
+                .build(), item, booker.getId()).getId();
+    }
+
+    private Long persistBypassingPointers(LocalDateTime start, LocalDateTime end) {
+        var booking = new Booking(null, start, end, entityManager.getReference(Item.class, item.getId()),
+                entityManager.getReference(User.class, booker.getId()), APPROVED, null);
+        entityManager.persist(booking);
+        entityManager.flush();
+        return booking.getId();
+    }
+
+    private void expirePointers() {
+        entityManager.createNativeQuery("UPDATE items SET booking_pointers_expire_at = :at WHERE id = :id")
+                .setParameter("at", now().minusMinutes(1))
+                .setParameter("id", item.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void getPointersAfterSaveTest() {
+        var last = persistBypassingPointers(now().minusDays(2), now().minusDays(1));
+        book(now().plusDays(3), now().plusDays(4));
+        var next = book(now().plusDays(1), now().plusDays(2));
+
+        var found = itemService.get(item.getId(), owner.getId());
+        assertThat(found.getLastBooking().getId(), equalTo(last));
+        assertThat(found.getLastBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(found.getNextBooking().getId(), equalTo(next));
+    }
+
+    @Test
+    void getWithoutPointersForOtherUserTest() {
+        book(now().plusDays(1), now().plusDays(2));
+
+        var found = itemService.get(item.getId(), booker.getId());
+        assertThat(found.getLastBooking(), nullValue());
+        assertThat(found.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getWithExpiredPointersTest() {
+        var next = book(now().plusDays(1), now().plusDays(2));
+        var last = persistBypassingPointers(now().minusDays(2), now().minusDays(1));
+        expirePointers();
+
+        var found = itemService.getAllItems(owner.getId(), null, null).get(0);
+        assertThat(found.getLastBooking().getId(), equalTo(last));
+        assertThat(found.getNextBooking().getId(), equalTo(next));
+    }
+
+    @Test
+    void rollTest() {
+        var last = persistBypassingPointers(now().minusDays(2), now().minusDays(1));
+        expirePointers();
+
+        assertThat(itemBookingPointers.roll(), equalTo(1));
+        assertThat(itemBookingPointers.roll(), equalTo(0));
+        var found = itemService.get(item.getId(), owner.getId());
+        assertThat(found.getLastBooking().getId(), equalTo(last));
+        assertThat(found.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void checkTest() {
+        book(now().plusDays(3), now().plusDays(4));
+        var next = persistBypassingPointers(now().plusDays(1), now().plusDays(2));
+
+        assertThat(itemBookingPointers.check(), equalTo(1));
+        assertThat(itemBookingPointers.check(), equalTo(0));
+        assertThat(itemService.get(item.getId(), owner.getId()).getNextBooking().getId(), equalTo(next));
+    }
+}
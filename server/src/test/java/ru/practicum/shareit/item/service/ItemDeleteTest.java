@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Удаление вещи так, как его вызывает контроллер, — без общей транзакции теста: вещь должна
+ * исчезнуть и из базы, и из поиска. Так же и для вещей, которые база удаляет каскадом вместе
+ * с владельцем или автором запроса. Пользователи удаляются в конце.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemDeleteTest {
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+    private UserDto owner;
+    private UserDto requester;
+    private ItemDto item;
+    private ItemDto response;
+
+    @BeforeEach
+    void initialize() {
+        owner = userService.save(new UserDto(null, "Owner", "delete-owner@mail.com"));
+        requester = userService.save(new UserDto(null, "Requester", "delete-requester@mail.com"));
+        var request = itemRequestService.save(new ItemRequestDto(null, "Need a raincoat", null, null, null),
+                requester.getId());
+        item = itemService.save(new ItemDto(null, "Umbrella", "Folding umbrella", true, owner.getId(), null),
+                null, owner.getId());
+        response = itemService.save(new ItemDto(null, "Raincoat", "Yellow raincoat", true, owner.getId(), request.getId()),
+                request, owner.getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(requester.getId());
+        userService.delete(owner.getId());
+    }
+
+    @Test
+    void deleteTest() {
+        itemService.delete(item.getId());
+
+        assertThat(itemRepository.existsById(item.getId()), is(false));
+        assertThat(itemService.search("umbrella", owner.getId(), null, null), empty());
+    }
+
+    @Test
+    void deleteOwnerTest() {
+        userService.delete(owner.getId());
+
+        assertThat(itemRepository.existsById(item.getId()), is(false));
+        assertThat(itemService.search("umbrella", requester.getId(), null, null), empty());
+        assertThat(itemService.search("raincoat", requester.getId(), null, null), empty());
+    }
+
+    @Test
+    void deleteRequesterTest() {
+        userService.delete(requester.getId());
+
+        assertThat(itemRepository.existsById(response.getId()), is(false));
+        assertThat(itemService.search("raincoat", owner.getId(), null, null), empty());
+        assertThat(itemService.search("umbrella", owner.getId(), null, null), hasSize(1));
+    }
+}
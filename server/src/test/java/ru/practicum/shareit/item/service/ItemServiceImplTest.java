@@ -19,6 +19,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
@@ -364,4 +365,39 @@ class ItemServiceImplTest {
     }
 
 
-}
\ No newline at end of file
+    @Test
+    void saveAllTest() {
+        var results = itemService.saveAll(of(
+                new ItemDto(null, "Pencil", "Red pencil", true, null, null),
+                new ItemDto(null, " ", "No name", true, null, null),
+                new ItemDto(null, "Eraser", "Eraser", true, null, 999L)), userDto.getId());
+        assertThat(results.stream().map(BatchResultDto::getStatus).toList(), contains(200, 400, 404));
+        var saved = results.get(0).getResult();
+        assertThat(saved.getId(), notNullValue());
+        assertThat(saved.getOwnerId(), equalTo(userDto.getId()));
+        assertThat(itemService.getAllItems(userDto.getId(), null, null), hasSize(2));
+    }
+
+    @Test
+    void getEtagTest() {
+        var ownerEtag = itemService.getEtag(itemDto.getId(), userDto.getId());
+        var viewerEtag = itemService.getEtag(itemDto.getId(), userDto.getId() + 1);
+        assertThat(ownerEtag, notNullValue());
+        assertThat(viewerEtag, not(equalTo(ownerEtag)));
+        assertThat(itemService.getEtag(itemDto.getId(), userDto.getId()), equalTo(ownerEtag));
+        assertThat(itemService.getEtag(itemDto.getId() + 100, userDto.getId()), nullValue());
+
+        itemService.update(new ItemDto(itemDto.getId(), "Bear", null, null, null, null), userDto.getId());
+        var updatedEtag = itemService.getEtag(itemDto.getId(), userDto.getId() + 1);
+        assertThat(updatedEtag, not(equalTo(viewerEtag)));
+
+        var commentDto = saveCommentDto("Hello there", new UserDto(15L, "Douglas", "douglas@mail.com"));
+        var commentedEtag = itemService.getEtag(itemDto.getId(), userDto.getId() + 1);
+        assertThat(commentedEtag, not(equalTo(updatedEtag)));
+
+        var author = entityManager.createQuery("SELECT comment.author.id FROM Comment comment", Long.class)
+                .getSingleResult();
+        userService.update(new UserDto(null, "Doug", null), author);
+        assertThat(itemService.getEtag(commentDto.getItemId(), userDto.getId() + 1), not(equalTo(commentedEtag)));
+    }
+}
@@ -5,23 +5,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.config.CommentProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.References;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItem;
 import static ru.practicum.shareit.item.mapper.ItemMapper.mapToItemDto;
@@ -38,6 +46,14 @@ class ItemServiceUnitTest {
     private ItemRepository itemRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private References references;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
     private ItemService itemService;
     private ItemDto itemDto;
     private UserDto userDto;
@@ -49,7 +65,12 @@ class ItemServiceUnitTest {
                 commentRepository,
                 itemRepository,
                 bookingService,
-                userService
+                userService,
+                new CommentProperties(),
+                itemSearchEngine,
+                references,
+                itemRequestRepository,
+                bookingIntervalIndex
         );
         userDto = new UserDto(
                 1L,
@@ -61,6 +82,8 @@ class ItemServiceUnitTest {
                 "Testocket",
                 true,
                 mapToUser(userDto),
+                null,
+                null,
                 null);
         itemDto = mapToItemDto(item);
     }
@@ -89,6 +112,8 @@ class ItemServiceUnitTest {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 mapToUser(userDto),
+                null,
+                null,
                 null
         );
         when(itemRepository.findById(anyLong()))
@@ -103,8 +128,8 @@ class ItemServiceUnitTest {
     @Test
     void searchTest() {
         saveItemDto();
-        when(itemRepository.search(anyString()))
-                .thenReturn(of(item));
+        when(itemSearchEngine.search(anyString(), any()))
+                .thenReturn(of(mapToItemDto(item)));
         var search = itemService.search(
                 "oops",
                 userDto.getId(),
@@ -125,6 +150,14 @@ class ItemServiceUnitTest {
                 () -> itemService.get(42L, userDto.getId()));
     }
 
+    @Test
+    void getSummaryNotFoundTest() {
+        when(itemRepository.findSummaryById(anyLong()))
+                .thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class,
+                () -> itemService.getSummary(42L));
+    }
+
     @Test
     void saveCommentNotFoundItemTest() {
         var commentDto = new CommentDto(
@@ -155,7 +188,7 @@ class ItemServiceUnitTest {
     @Test
     void searchEmptyResultTest() {
         saveItemDto();
-        when(itemRepository.search(anyString()))
+        when(itemSearchEngine.search(anyString(), any()))
                 .thenReturn(of());
         var search = itemService.search(
                 "Fang",
@@ -193,7 +226,7 @@ class ItemServiceUnitTest {
 
 
     @Test
-    void getAllCommentsTest() {
+    void getCommentsByItemIdsTest() {
         var commentDto = new CommentDto(
                 1L,
 
@@ -202,19 +235,29 @@ class ItemServiceUnitTest {
                 userDto.getName(),
                 now()
         );
-        var comment = new Comment(
+        var comment = new View(
                 1L,
+                item.getId(),
                 commentDto.getText(),
-                item,
-                mapToUser(userDto),
+                userDto.getName(),
                 now()
         );
-        when(commentRepository.findAll())
+        when(commentRepository.findLimitedByItemIds(anyCollection(), anyBoolean(), anyInt()))
                 .thenReturn(of(comment));
-        var allComments = itemService.getAllComments();
-        assertEquals(allComments.get(0).getId(), comment.getId());
-        assertEquals(allComments.size(), 1);
+        var comments = itemService.getComments(of(item.getId()));
+        assertEquals(comments.get(item.getId()).get(0).getId(), comment.getId());
+        assertEquals(comments.get(item.getId()).get(0).getAuthorName(), userDto.getName());
+        assertEquals(comments.size(), 1);
     }
 
+    @Test
+    void getCommentsEmptyItemIdsTest() {
+        var comments = itemService.getComments(of());
+        assertEquals(comments.size(), 0);
+        verifyNoInteractions(commentRepository);
+    }
 
+    private record View(Long getId, Long getItemId, String getText, String getAuthorName,
+                        LocalDateTime getCreated) implements CommentView {
+    }
 }
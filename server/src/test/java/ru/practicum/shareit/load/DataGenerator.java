@@ -0,0 +1,178 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Заполняет пустую базу H2 сервера данными с перекосом, как в рабочей базе: у нескольких
+ * «крупных» владельцев по десятку тысяч вещей, на горячие вещи этих владельцев приходятся тысячи
+ * броней и десятки отзывов, остальные вещи и брони разбросаны по обычным пользователям.
+ * <p>
+ * Данные вставляются одними INSERT ... SELECT с явными id, поэтому после вставки последовательности
+ * и identity-столбцы переводятся за них, указатели на брони пересчитываются, а поисковый индекс
+ * в памяти перестраивается.
+ */
+@Slf4j
+public final class DataGenerator {
+    private static final List<String> WORDS =
+            List.of("Drill", "Saw", "Ladder", "Tent", "Bicycle", "Camera", "Projector", "Kayak");
+    private static final int REFRESH_CHUNK = 1000;
+
+    private DataGenerator() {
+    }
+
+    /**
+     * Объём данных. Пользователи с id от 1 до {@code powerOwners} — крупные владельцы, их вещи идут
+     * подряд по {@code itemsPerPowerOwner}; за ними {@code regularItems} вещей обычных пользователей.
+     */
+    public record Profile(int users, int powerOwners, int itemsPerPowerOwner, int regularItems,
+                          int hotItems, int bookingsPerHotItem, int regularBookings,
+                          int requests, int commentsPerHotItem) {
+
+        public static Profile production() {
+            return new Profile(20_000, 3, 10_000, 20_000, 30, 2_000, 100_000, 5_000, 50);
+        }
+
+        public int items() {
+            return powerOwners * itemsPerPowerOwner + regularItems;
+        }
+
+        public int bookings() {
+            return hotItems * bookingsPerHotItem + regularBookings;
+        }
+
+        public long powerOwner(int index) {
+            return 1 + index % powerOwners;
+        }
+
+        /**
+         * Горячие вещи поровну распределены между крупными владельцами, по первым вещам каждого.
+         */
+        public long hotItem(int index) {
+            var hot = index % hotItems;
+            return (long) (hot % powerOwners) * itemsPerPowerOwner + hot / powerOwners + 1;
+        }
+
+        public long randomRegularUser() {
+            return powerOwners + 1 + ThreadLocalRandom.current().nextInt(users - powerOwners);
+        }
+
+        public long randomPowerItem(long owner) {
+            return (owner - 1) * itemsPerPowerOwner + 1 + ThreadLocalRandom.current().nextInt(itemsPerPowerOwner);
+        }
+
+        /**
+         * Доступная вещь обычного пользователя.
+         */
+        public long randomRegularItem() {
+            long item;
+            do {
+                item = (long) powerOwners * itemsPerPowerOwner + 1 + ThreadLocalRandom.current().nextInt(regularItems);
+            } while (item % 10 == 9);
+            return item;
+        }
+
+        public long ownerOf(long item) {
+            var powerItems = (long) powerOwners * itemsPerPowerOwner;
+            if (item <= powerItems) return (item - 1) / itemsPerPowerOwner + 1;
+            return powerOwners + 1 + item * 7919 % (users - powerOwners);
+        }
+
+        public String randomWord() {
+            return WORDS.get(ThreadLocalRandom.current().nextInt(WORDS.size())).toLowerCase();
+        }
+
+        public long randomRequest() {
+            return 1 + ThreadLocalRandom.current().nextInt(requests);
+        }
+    }
+
+    public static void seed(ConfigurableApplicationContext context, Profile profile) {
+        var begin = System.nanoTime();
+        var jdbc = context.getBean(JdbcTemplate.class);
+        var powerItems = profile.powerOwners() * profile.itemsPerPowerOwner();
+        var hotBookings = profile.hotItems() * profile.bookingsPerHotItem();
+
+        jdbc.execute("INSERT INTO users (id, name, email) "
+                + "SELECT x, 'User' || x, 'user' || x || '@load.test' FROM SYSTEM_RANGE(1, " + profile.users() + ")");
+        jdbc.execute("INSERT INTO requests (id, description, requester_id, created) "
+                + "SELECT x, 'Need a ' || LOWER(" + word("x") + "), "
+                + regularUser("x * 13", profile) + ", DATEADD('DAY', -MOD(x, 365), CURRENT_DATE) "
+                + "FROM SYSTEM_RANGE(1, " + profile.requests() + ")");
+        jdbc.execute("INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                + "SELECT x, " + word("x") + " || ' ' || x, 'Description of ' || LOWER(" + word("x") + ") || ' ' || x, "
+                + "CASE WHEN x <= " + powerItems + " OR MOD(x, 10) <> 9 THEN TRUE ELSE FALSE END, "
+                + "CASE WHEN x <= " + powerItems + " THEN (x - 1) / " + profile.itemsPerPowerOwner() + " + 1 "
+                + "ELSE " + regularUser("x * 7919", profile) + " END, "
+                + "CASE WHEN x > " + powerItems + " AND MOD(x, 10) = 0 THEN 1 + MOD(x, " + profile.requests() + ") END "
+                + "FROM SYSTEM_RANGE(1, " + profile.items() + ")");
+        // Брони горячей вещи идут через три часа, половина в прошлом, половина в будущем.
+        jdbc.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT x + 1, DATEADD('HOUR', 3 * (x / " + profile.hotItems() + " - "
+                + profile.bookingsPerHotItem() / 2 + "), LOCALTIMESTAMP), "
+                + "DATEADD('HOUR', 3 * (x / " + profile.hotItems() + " - " + profile.bookingsPerHotItem() / 2 + ") + 2, "
+                + "LOCALTIMESTAMP), " + hotItem("MOD(x, " + profile.hotItems() + ")", profile) + ", "
+                + regularUser("x * 31", profile) + ", "
+                + "CASE WHEN MOD(x, 17) = 0 THEN 'REJECTED' WHEN MOD(x, 5) = 0 THEN 'WAITING' ELSE 'APPROVED' END "
+                + "FROM SYSTEM_RANGE(0, " + (hotBookings - 1) + ")");
+        jdbc.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT " + hotBookings + " + x, DATEADD('HOUR', MOD(x * 7, 2880) - 1440, LOCALTIMESTAMP), "
+                + "DATEADD('HOUR', MOD(x * 7, 2880) - 1440 + 24, LOCALTIMESTAMP), "
+                + (powerItems + 1) + " + MOD(x * 17, " + profile.regularItems() + "), "
+                + regularUser("x * 11", profile) + ", "
+                + "CASE WHEN MOD(x, 10) = 0 THEN 'WAITING' ELSE 'APPROVED' END "
+                + "FROM SYSTEM_RANGE(1, " + profile.regularBookings() + ")");
+        jdbc.execute("INSERT INTO comments (text, item_id, author_id, created) "
+                + "SELECT 'Comment ' || x, " + hotItem("MOD(x, " + profile.hotItems() + ")", profile) + ", "
+                + regularUser("x * 31", profile) + ", DATEADD('MINUTE', -x, LOCALTIMESTAMP) "
+                + "FROM SYSTEM_RANGE(0, " + (profile.hotItems() * profile.commentsPerHotItem() - 1) + ")");
+
+        // Пул Hibernate берёт по 50 id, с запасом на размер пула.
+        jdbc.execute("ALTER SEQUENCE users_seq RESTART WITH " + (profile.users() + 51));
+        jdbc.execute("ALTER SEQUENCE items_seq RESTART WITH " + (profile.items() + 51));
+        jdbc.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (profile.bookings() + 51));
+        jdbc.execute("ALTER TABLE requests ALTER COLUMN id RESTART WITH " + (profile.requests() + 1));
+        jdbc.execute("ANALYZE");
+
+        refreshBookingPointers(context, profile.items());
+        if (context.getBean(ItemSearchEngine.class) instanceof InMemoryItemSearchEngine search) search.rebuild();
+        log.info("Seeded {} users, {} items, {} bookings in {} ms", profile.users(), profile.items(),
+                profile.bookings(), (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    private static void refreshBookingPointers(ConfigurableApplicationContext context, int items) {
+        var itemRepository = context.getBean(ItemRepository.class);
+        var transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        var now = LocalDateTime.now();
+        for (long from = 1; from <= items; from += REFRESH_CHUNK) {
+            var ids = LongStream.range(from, Math.min(from + REFRESH_CHUNK, items + 1L)).boxed().toList();
+            transactions.executeWithoutResult(status -> itemRepository.refreshBookingPointers(ids, now));
+        }
+    }
+
+    private static String word(String x) {
+        var word = new StringBuilder("CASE MOD(" + x + ", " + WORDS.size() + ")");
+        for (var i = 0; i < WORDS.size(); i++) word.append(" WHEN ").append(i).append(" THEN '").append(WORDS.get(i)).append("'");
+        return word.append(" END").toString();
+    }
+
+    private static String regularUser(String x, Profile profile) {
+        return profile.powerOwners() + 1 + " + MOD(" + x + ", " + (profile.users() - profile.powerOwners()) + ")";
+    }
+
+    private static String hotItem(String hot, Profile profile) {
+        return "MOD(" + hot + ", " + profile.powerOwners() + ") * " + profile.itemsPerPowerOwner()
+                + " + " + hot + " / " + profile.powerOwners() + " + 1";
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * Нагрузка из многих одновременных пользователей: каждый — виртуальный поток, который выполняет
+ * свои запросы подряд. Задержка запроса записывается под именем его эндпоинта, ответ не из 2xx
+ * считается ошибкой. Все пользователи стартуют одновременно. Имя эндпоинта уходит серверу
+ * в заголовке {@value SqlStatementCounter#ENDPOINT_HEADER}.
+ */
+public class LoadDriver implements AutoCloseable {
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    /**
+     * Один запрос нагрузки: имя эндпоинта для отчёта и сам запрос.
+     */
+    public record Call(String endpoint, HttpRequest request) {
+    }
+
+    @FunctionalInterface
+    public interface Workload {
+        Call next(int user, int iteration);
+    }
+
+    public LoadReport run(int users, int requestsPerUser, Workload workload) throws InterruptedException {
+        var report = new LoadReport();
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var user = 0; user < users; user++) {
+                var index = user;
+                executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < requestsPerUser; i++) {
+                        var call = workload.next(index, i);
+                        var begin = System.nanoTime();
+                        var ok = send(call);
+                        report.record(call.endpoint(), System.nanoTime() - begin, ok);
+                    }
+                    return null;
+                });
+            }
+            report.start();
+            start.countDown();
+        }
+        report.finish();
+        return report;
+    }
+
+    private boolean send(Call call) throws InterruptedException {
+        var request = HttpRequest.newBuilder(call.request(), (name, value) -> true)
+                .header(SqlStatementCounter.ENDPOINT_HEADER, call.endpoint())
+                .build();
+        try {
+            var status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.load;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Итоги нагрузочного прогона: пропускная способность и перцентили задержки по эндпоинтам и в целом,
+ * а если переданы счётчики {@link SqlStatementCounter}, то и число SQL-запросов на запрос.
+ */
+public class LoadReport {
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+    private Map<String, Long> sqlStatements = Map.of();
+    private long startedAt;
+    private long finishedAt;
+
+    /**
+     * Число запросов, ошибок и задержки в миллисекундах.
+     */
+    public record Stats(long requests, long errors, double p50, double p99) {
+        static Stats of(Samples samples) {
+            var latencies = samples.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Stats(latencies.length, samples.errors.get(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) return 0;
+            var index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    private static class Samples {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+    }
+
+    void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        var samples = endpoints.computeIfAbsent(endpoint, name -> new Samples());
+        samples.latencies.add(nanos);
+        if (!ok) samples.errors.incrementAndGet();
+    }
+
+    public void sqlStatements(Map<String, Long> statements) {
+        sqlStatements = statements;
+    }
+
+    /**
+     * SQL-запросов на один запрос к эндпоинту.
+     */
+    public double sqlPerRequest(String endpoint) {
+        var stats = byEndpoint().get(endpoint);
+        if (stats == null || stats.requests() == 0) return 0;
+        return sqlStatements.getOrDefault(endpoint, 0L) / (double) stats.requests();
+    }
+
+    public Map<String, Stats> byEndpoint() {
+        var stats = new TreeMap<String, Stats>();
+        endpoints.forEach((endpoint, samples) -> stats.put(endpoint, Stats.of(samples)));
+        return stats;
+    }
+
+    public Stats total() {
+        var all = new Samples();
+        endpoints.values().forEach(samples -> {
+            all.latencies.addAll(samples.latencies);
+            all.errors.addAndGet(samples.errors.get());
+        });
+        return Stats.of(all);
+    }
+
+    public long errors() {
+        return total().errors();
+    }
+
+    /**
+     * Запросов в секунду за весь прогон.
+     */
+    public double throughput() {
+        return total().requests() / ((finishedAt - startedAt) / 1_000_000_000.0);
+    }
+
+    public String format(String title) {
+        var lines = new StringBuilder(String.format("%s: %.1f req/s%n", title, throughput()));
+        var sql = !sqlStatements.isEmpty();
+        lines.append(String.format("%-28s %9s %7s %10s %10s", "endpoint", "requests", "errors", "p50, ms", "p99, ms"));
+        lines.append(sql ? String.format(" %9s%n", "SQL/req") : String.format("%n"));
+        byEndpoint().forEach((endpoint, stats) ->
+                lines.append(line(endpoint, stats, sql ? sqlPerRequest(endpoint) : null)));
+        var total = total();
+        var statements = sqlStatements.values().stream().mapToLong(Long::longValue).sum();
+        lines.append(line("total", total, sql && total.requests() > 0 ? statements / (double) total.requests() : null));
+        return lines.toString();
+    }
+
+    private static String line(String name, Stats stats, Double sqlPerRequest) {
+        var line = String.format("%-28s %9d %7d %10.2f %10.2f",
+                name, stats.requests(), stats.errors(), stats.p50(), stats.p99());
+        return line + (sqlPerRequest != null ? String.format(" %9.1f%n", sqlPerRequest) : String.format("%n"));
+    }
+}
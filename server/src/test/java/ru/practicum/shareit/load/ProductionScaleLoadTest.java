@@ -0,0 +1,117 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Смешанная нагрузка на сервер с базой рабочего масштаба ({@link DataGenerator.Profile#production()}):
+ * {@value USERS} одновременных пользователей, по {@value REQUESTS_PER_USER} запросов на каждого.
+ * Запросы повторяют пути, параметры и заголовки клиентов шлюза; доли эндпоинтов — как у чтения
+ * и записи в рабочем трафике. Отчёт с пропускной способностью, p50/p99 и числом SQL-запросов
+ * на запрос по эндпоинтам пишется в лог. В обычную сборку не входит: {@code mvn test -Pload-test}.
+ */
+@Slf4j
+@Tag("load")
+class ProductionScaleLoadTest {
+    private static final int USERS = 200;
+    private static final int REQUESTS_PER_USER = 50;
+    private static final int PAGE = 20;
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final DataGenerator.Profile profile = DataGenerator.Profile.production();
+    private final AtomicLong bookingSlot = new AtomicLong();
+
+    @Test
+    void productionScaleMixTest() throws Exception {
+        try (var context = start(); var driver = new LoadDriver()) {
+            DataGenerator.seed(context, profile);
+            var base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            LoadDriver.Workload workload = (user, iteration) -> next(base);
+            driver.run(USERS / 2, 10, workload);
+            SqlStatementCounter.drain();
+
+            var report = driver.run(USERS, REQUESTS_PER_USER, workload);
+            report.sqlStatements(SqlStatementCounter.drain());
+            log.info("\n{}", report.format("production-scale mix"));
+            assertThat(report.errors(), equalTo(0L));
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .initializers(context -> ((GenericApplicationContext) context)
+                        .registerBean(SqlStatementCounter.Filter.class))
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-production",
+                        SqlStatementCounter.PROPERTY,
+                        "--shareit.sql-budget.strict=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum=INFO",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    /**
+     * Следующий запрос смеси: чтение вещей и броней крупных владельцев и обычных пользователей,
+     * поиск, запросы вещей и создание броней.
+     */
+    private LoadDriver.Call next(URI base) {
+        var random = ThreadLocalRandom.current();
+        var roll = random.nextInt(100);
+        var user = profile.randomRegularUser();
+        var powerOwner = profile.powerOwner(random.nextInt(profile.powerOwners()));
+        var hotItem = profile.hotItem(random.nextInt(profile.hotItems()));
+        if (roll < 10) return get("GET /users/{id}", base, "/users/" + user, null);
+        if (roll < 30) return get("GET /items/{id}", base, "/items/" + hotItem, user);
+        if (roll < 40) return get("GET /items/{id} (owner)", base, "/items/" + profile.randomPowerItem(powerOwner), powerOwner);
+        if (roll < 48) return get("GET /items", base,
+                "/items?from=" + random.nextInt(profile.itemsPerPowerOwner() - PAGE) + "&size=" + PAGE, powerOwner);
+        if (roll < 58) return get("GET /items/search", base,
+                "/items/search?text=" + profile.randomWord() + "&from=0&size=" + PAGE, user);
+        if (roll < 68) return get("GET /bookings", base, "/bookings?state=ALL&from=0&size=" + PAGE, user);
+        if (roll < 74) return get("GET /bookings/owner", base,
+                "/bookings/owner?state=ALL&from=0&size=" + PAGE, powerOwner);
+        if (roll < 80) return get("GET /requests/all", base, "/requests/all?from=0&size=" + PAGE, user);
+        if (roll < 86) return get("GET /requests/{id}", base, "/requests/" + profile.randomRequest(), user);
+        if (roll < 90) return get("GET /requests", base, "/requests", user);
+        return postBooking(base);
+    }
+
+    /**
+     * Бронь доступной вещи обычного пользователя на свободные часы, далеко за уже созданными бронями.
+     */
+    private LoadDriver.Call postBooking(URI base) {
+        var item = profile.randomRegularItem();
+        var booker = profile.randomRegularUser();
+        if (booker == profile.ownerOf(item)) booker = profile.powerOwner(0);
+        var start = now().plusDays(365).plusHours(2 * bookingSlot.getAndIncrement()).withNano(0);
+        var body = "{\"itemId\":" + item + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1) + "\"}";
+        var request = HttpRequest.newBuilder(base.resolve("/bookings"))
+                .header(HEADER_SHARER_USER_ID, String.valueOf(booker))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return new LoadDriver.Call("POST /bookings", request);
+    }
+
+    private static LoadDriver.Call get(String endpoint, URI base, String path, Long userId) {
+        var request = HttpRequest.newBuilder(base.resolve(path)).GET();
+        if (userId != null) request.header(HEADER_SHARER_USER_ID, String.valueOf(userId));
+        return new LoadDriver.Call(endpoint, request.build());
+    }
+}
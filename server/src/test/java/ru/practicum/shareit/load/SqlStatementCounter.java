@@ -0,0 +1,57 @@
+package ru.practicum.shareit.load;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчик SQL-запросов Hibernate по эндпоинтам нагрузки. {@link LoadDriver} передаёт имя эндпоинта
+ * в заголовке {@value ENDPOINT_HEADER}, {@link Filter} запоминает его в потоке запроса, а Hibernate
+ * показывает счётчику каждый подготовленный запрос
+ * ({@code spring.jpa.properties.hibernate.session_factory.statement_inspector}).
+ */
+public class SqlStatementCounter implements StatementInspector {
+    public static final String ENDPOINT_HEADER = "X-Load-Endpoint";
+    public static final String PROPERTY =
+            "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementCounter.class.getName();
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+    private static final Map<String, LongAdder> STATEMENTS = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        var endpoint = ENDPOINT.get();
+        if (endpoint != null) STATEMENTS.computeIfAbsent(endpoint, name -> new LongAdder()).increment();
+        return sql;
+    }
+
+    /**
+     * Число запросов по эндпоинтам с прошлого вызова; счётчики обнуляются.
+     */
+    public static Map<String, Long> drain() {
+        var statements = new TreeMap<String, Long>();
+        STATEMENTS.forEach((endpoint, count) -> statements.put(endpoint, count.sumThenReset()));
+        return statements;
+    }
+
+    public static class Filter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            ENDPOINT.set(request.getHeader(ENDPOINT_HEADER));
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ENDPOINT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingSavingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Сравнивает сервер на потоках платформы и на виртуальных потоках под одной и той же нагрузкой:
+ * {@value USERS} одновременных пользователей, по {@value REQUESTS_PER_USER} запросов чтения на каждого.
+ * Каждый режим поднимает свой контекст со своей базой H2; отчёт с пропускной способностью
+ * и p50/p99 по эндпоинтам пишется в лог. В обычную сборку не входит: {@code mvn test -Pload-test}.
+ */
+@Slf4j
+@Tag("load")
+class ThreadModeLoadTest {
+    private static final int USERS = 1_000;
+    private static final int REQUESTS_PER_USER = 10;
+    private static final int ACCOUNTS = 100;
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    @Test
+    void compareThreadModesTest() throws Exception {
+        var platform = run(false);
+        var virtual = run(true);
+        log.info("\n{}\n{}", platform.format("platform threads"), virtual.format("virtual threads"));
+        assertThat(platform.errors(), equalTo(0L));
+        assertThat(virtual.errors(), equalTo(0L));
+    }
+
+    private LoadReport run(boolean virtualThreads) throws Exception {
+        var mode = virtualThreads ? "virtual" : "platform";
+        try (var context = start(virtualThreads, mode); var driver = new LoadDriver()) {
+            var base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            var accounts = seed(context);
+            LoadDriver.Workload workload = (user, iteration) -> {
+                var account = accounts.get(user % accounts.size());
+                return switch (iteration % 5) {
+                    case 0 -> call("GET /users/{id}", base, "/users/" + account.userId(), null);
+                    case 1 -> call("GET /items/{id}", base, "/items/" + account.itemId(), account.userId());
+                    case 2 -> call("GET /items", base, "/items?from=0&size=10", account.userId());
+                    case 3 -> call("GET /bookings", base, "/bookings?state=ALL", account.userId());
+                    default -> call("GET /bookings/owner", base, "/bookings/owner?state=ALL", account.userId());
+                };
+            };
+            driver.run(ACCOUNTS, 5, workload);
+            return driver.run(USERS, REQUESTS_PER_USER, workload);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, String mode) {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "--shareit.sql-budget.strict=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum=INFO",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private record Account(Long userId, Long itemId) {
+    }
+
+    /**
+     * У каждого пользователя одна вещь, которую бронирует следующий по кругу пользователь.
+     */
+    private static List<Account> seed(ConfigurableApplicationContext context) {
+        var userService = context.getBean(UserService.class);
+        var itemService = context.getBean(ItemService.class);
+        var bookingService = context.getBean(BookingService.class);
+        var accounts = new ArrayList<Account>();
+        for (var i = 0; i < ACCOUNTS; i++) {
+            var user = userService.save(new UserDto(null, "User" + i, "load" + i + "@mail.com"));
+            var item = itemService.save(new ItemDto(null, "Item" + i, "Item" + i, true, user.getId(), null),
+                    null, user.getId());
+            accounts.add(new Account(user.getId(), item.getId()));
+        }
+        for (var i = 0; i < ACCOUNTS; i++) {
+            var owner = accounts.get(i);
+            var booker = accounts.get((i + 1) % ACCOUNTS);
+            var item = itemService.getSummary(owner.itemId());
+            bookingService.save(BookingSavingDto.builder()
+                    .start(now().plusDays(1))
+                    .end(now().plusDays(2))
+                    .itemId(owner.itemId())
+                    .build(), item, booker.userId());
+        }
+        return accounts;
+    }
+
+    private static LoadDriver.Call call(String endpoint, URI base, String path, Long userId) {
+        var request = HttpRequest.newBuilder(base.resolve(path)).GET();
+        if (userId != null) request.header(HEADER_SHARER_USER_ID, String.valueOf(userId));
+        return new LoadDriver.Call(endpoint, request.build());
+    }
+}
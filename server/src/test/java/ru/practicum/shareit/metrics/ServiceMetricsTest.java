@@ -0,0 +1,117 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+@Transactional
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ServiceMetricsTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final MockMvc mvc;
+    private User owner;
+
+    @BeforeEach
+    void initialize() {
+        owner = new User(null, "Owner", "metrics-owner@mail.com");
+        var booker = new User(null, "Booker", "metrics-booker@mail.com");
+        var item = new Item(null, "Item", "Item", true, owner, null, null, null);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(item);
+        entityManager.persist(new Booking(null, now().minusDays(2), now().minusDays(1), item, booker, APPROVED, null));
+        entityManager.persist(new Booking(null, now().minusDays(4), now().minusDays(3), item, booker, APPROVED, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long timerCount(String method, String state, String paged) {
+        var timer = meterRegistry.find(ServiceTimingAspect.METRIC)
+                .tags("service", "BookingService", "method", method, "state", state, "paged", paged)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    void serviceTimerTagsTest() throws Exception {
+        var paged = timerCount("getBookingsByOwnerId", "PAST", "true");
+        var unpaged = timerCount("getBookingsByOwnerId", "PAST", "false");
+
+        mvc.perform(get("/bookings/owner?state=PAST&from=0&size=10").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner?state=PAST").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(timerCount("getBookingsByOwnerId", "PAST", "true"), equalTo(paged + 1));
+        assertThat(timerCount("getBookingsByOwnerId", "PAST", "false"), equalTo(unpaged + 1));
+    }
+
+    @Test
+    void unknownStateTagTest() throws Exception {
+        var unknown = timerCount("getAllBookings", "UNKNOWN", "false");
+
+        mvc.perform(get("/bookings?state=SOMETHING").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isBadRequest());
+
+        var timer = meterRegistry.get(ServiceTimingAspect.METRIC)
+                .tags("method", "getAllBookings", "state", "UNKNOWN", "exception", "ValidationException")
+                .timer();
+        assertThat(timer.count(), greaterThanOrEqualTo(1L));
+        assertThat(timerCount("getAllBookings", "UNKNOWN", "false"), equalTo(unknown + 1));
+    }
+
+    @Test
+    void requestJdbcStatisticsTest() throws Exception {
+        mvc.perform(get("/bookings/owner?state=ALL").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        var statements = meterRegistry.get(JdbcMetricsFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/bookings/owner")
+                .summary();
+        var rows = meterRegistry.get(JdbcMetricsFilter.ROWS)
+                .tags("method", "GET", "uri", "/bookings/owner")
+                .summary();
+        assertThat(statements.count(), greaterThanOrEqualTo(1L));
+        assertThat(statements.max(), greaterThanOrEqualTo(1.0));
+        assertThat(rows.max(), greaterThanOrEqualTo(2.0));
+    }
+
+    @Test
+    void prometheusEndpointTest() throws Exception {
+        mvc.perform(get("/bookings/owner?state=FUTURE&from=0&size=10").header(HEADER_SHARER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_seconds_bucket")))
+                .andExpect(content().string(containsString("state=\"FUTURE\"")))
+                .andExpect(content().string(containsString("shareit_request_jdbc_statements_count")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
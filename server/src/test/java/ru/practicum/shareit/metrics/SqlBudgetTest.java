@@ -0,0 +1,83 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+
+/**
+ * Бюджет списка броней владельца урезан до одного запроса: проверка пользователя и выборка
+ * броней в него не укладываются, и в строгом режиме тестового профиля запрос падает
+ * с перечнем источников.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "shareit.sql-budget.endpoints.[/bookings/owner]=1")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlBudgetTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final MockMvc mvc;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void initialize() {
+        owner = new User(null, "Owner", "budget-owner@mail.com");
+        booker = new User(null, "Booker", "budget-booker@mail.com");
+        var item = new Item(null, "Item", "Item", true, owner, null, null, null);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(item);
+        entityManager.persist(new Booking(null, now().plusDays(1), now().plusDays(2), item, booker, APPROVED, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private double exceeded(String uri) {
+        var counter = meterRegistry.find(JdbcMetricsFilter.BUDGET_EXCEEDED).tags("method", "GET", "uri", uri).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void overBudgetFailsInStrictModeTest() {
+        var exceeded = exceeded("/bookings/owner");
+
+        var exception = assertThrows(SqlBudgetExceededException.class, () ->
+                mvc.perform(get("/bookings/owner?state=ALL").header(HEADER_SHARER_USER_ID, owner.getId())));
+
+        assertThat(exception.getMessage(), containsString("GET /bookings/owner executed 2 statements (budget 1)"));
+        assertThat(exception.getMessage(), containsString("BookingRepository.findBookingsByItem_Owner_IdIsOrderByStartDesc x1"));
+        assertThat(exception.getMessage(), containsString("UserRepository.findById x1"));
+        assertThat(exceeded("/bookings/owner"), equalTo(exceeded + 1));
+    }
+
+    @Test
+    void withinBudgetTest() throws Exception {
+        var exceeded = exceeded("/bookings");
+
+        mvc.perform(get("/bookings?state=ALL").header(HEADER_SHARER_USER_ID, booker.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(exceeded("/bookings"), equalTo(exceeded));
+    }
+}
@@ -10,10 +10,15 @@ import ru.practicum.shareit.error.NotFoundException;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.utils.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -82,6 +87,22 @@ class ItemRequestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllItemRequestsByCursor() throws Exception {
+        var position = ScrollPosition.forward(Map.of("created", time, "id", 1L));
+        when(itemRequestService.scrollItemRequests(eq(""), eq(1), anyLong()))
+                .thenReturn(Window.from(List.of(itemRequestDto), index -> position, true));
+        mvc.perform(get("/requests/all")
+                        .header(headerSharerUserId, 1)
+                        .param("size", "1")
+                        .param("after", "")
+                )
+                .andExpect(jsonPath("$[0].id", is(itemRequestDto.getId()), Long.class))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.encode(position)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getAllItemRequestsById() throws Exception {
         when(itemRequestService.getAllItemRequests(anyLong()))
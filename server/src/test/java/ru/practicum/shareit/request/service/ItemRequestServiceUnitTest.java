@@ -13,6 +13,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.References;
 
 import static java.time.LocalDateTime.now;
 import static java.util.List.of;
@@ -34,6 +35,8 @@ class ItemRequestServiceUnitTest {
     private ItemService itemService;
     @Mock
     private UserService userService;
+    @Mock
+    private References references;
     private UserDto userDto;
 
     @BeforeEach
@@ -49,7 +52,7 @@ class ItemRequestServiceUnitTest {
                 now(),
                 of()
         );
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userService, itemService);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userService, itemService, references);
         itemRequest = mapToItemRequest(itemRequestDto, userDto);
     }
 
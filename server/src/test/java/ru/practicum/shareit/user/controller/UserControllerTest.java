@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.controller;
 
+import ru.practicum.shareit.utils.BatchResultDto;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -14,6 +15,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -145,4 +150,42 @@ class UserControllerTest {
                 )
                 .andExpect(status().isNotFound());
     }
+
+
+    @Test
+    void createAllTest() throws Exception {
+        when(userService.saveAll(anyList()))
+                .thenReturn(List.of(
+                        BatchResultDto.saved(0, userDto),
+                        BatchResultDto.failed(1, new EmailException("Пользователь с email: michael@mail.com уже существует."))));
+        mvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(List.of(userDto, userDto)))
+                        .contentType(APPLICATION_JSON)
+                        .characterEncoding(UTF_8)
+                        .accept(APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].result.id", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is(409)));
+    }
+
+    @Test
+    void getUserNotModifiedTest() throws Exception {
+        when(userService.get(anyLong()))
+                .thenReturn(userDto);
+        var etag = mvc.perform(get("/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ETAG);
+        mvc.perform(get("/users/{userId}", 1)
+                        .header(IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mvc.perform(get("/users/{userId}", 1)
+                        .header(IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, etag));
+    }
 }
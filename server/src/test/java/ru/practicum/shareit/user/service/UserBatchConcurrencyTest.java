@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.error.EmailException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Email пакета занят параллельным запросом уже после проверки: проверка подменена и занятых
+ * не видит, вставка падает на уникальном индексе, а занятые email перечитываются в новой
+ * транзакции. Пользователь коммитится по-настоящему и удаляется в конце.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserBatchConcurrencyTest {
+    private final UserService userService;
+    @SpyBean
+    private UserRepository userRepository;
+    private UserDto taken;
+
+    @BeforeEach
+    void initialize() {
+        taken = userService.save(new UserDto(null, "Taken", "taken@mail.com"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(taken.getId());
+    }
+
+    @Test
+    void saveAllReportsEmailTakenAfterCheckTest() {
+        doReturn(List.of()).when(userRepository).findExistingEmails(anyCollection());
+
+        var e = assertThrows(EmailException.class, () -> userService.saveAll(List.of(
+                new UserDto(null, "Free", "free@mail.com"),
+                new UserDto(null, "Taken", "taken@mail.com"))));
+
+        assertThat(e.getMessage(), equalTo("Пользователи с email: taken@mail.com уже существуют."));
+        assertThat(userRepository.findCommittedEmails(List.of("free@mail.com")), empty());
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.user.config.UserCacheConfig.USERS;
+
+/**
+ * Кэш пользователей работает только после коммита, поэтому тест без общей транзакции:
+ * данные коммитятся по-настоящему и удаляются в конце.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserCacheTest {
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    @SpyBean
+    private UserRepository userRepository;
+    private UserDto user;
+
+    @BeforeEach
+    void initialize() {
+        user = userService.save(new UserDto(null, "Cached", "cached@mail.com"));
+    }
+
+    @AfterEach
+    void cleanup() {
+        userService.delete(user.getId());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", USERS).tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    @Test
+    void getFromCacheTest() {
+        var hits = hits();
+        userService.get(user.getId());
+        userService.get(user.getId());
+        userService.get(user.getId());
+
+        verify(userRepository, times(1)).findById(user.getId());
+        assertThat(hits(), greaterThan(hits));
+    }
+
+    @Test
+    void getAfterUpdateTest() {
+        userService.get(user.getId());
+        userService.update(new UserDto(null, "Renamed", null), user.getId());
+
+        assertThat(userService.get(user.getId()).getName(), equalTo("Renamed"));
+    }
+
+    @Test
+    void getAfterDeleteTest() {
+        var other = userService.save(new UserDto(null, "Deleted", "deleted@mail.com"));
+        userService.get(other.getId());
+        userService.delete(other.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.get(other.getId()));
+    }
+}
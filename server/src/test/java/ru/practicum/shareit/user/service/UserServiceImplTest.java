@@ -9,8 +9,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResultDto;
 
+import static java.util.List.of;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -126,4 +129,20 @@ class UserServiceImplTest {
                 User.class).getResultList();
         assertThat(users.size(), equalTo(3));
     }
+
+
+    @Test
+    void saveAllTest() {
+        userService.save(userDto);
+        var results = userService.saveAll(of(
+                saveUserDto("Mary", "mary@mail.com"),
+                saveUserDto("Jack", "jack@mail.com"),
+                saveUserDto("Mary", "mary@mail.com"),
+                saveUserDto("Nobody", " ")));
+        assertThat(results.stream().map(BatchResultDto::getStatus).toList(), contains(200, 409, 409, 400));
+        assertThat(results.get(0).getResult().getId(), notNullValue());
+        var count = entityManager.createQuery("SELECT COUNT(user) FROM User user", Long.class)
+                .getSingleResult();
+        assertThat(count, equalTo(2L));
+    }
 }
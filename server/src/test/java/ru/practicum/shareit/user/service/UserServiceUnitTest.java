@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.EmailException;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -16,6 +21,7 @@ import java.util.List;
 import static java.util.Optional.ofNullable;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
 import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
 
 
@@ -23,13 +29,22 @@ import static ru.practicum.shareit.user.mapper.UserMapper.mapToUser;
 class UserServiceUnitTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
     private UserService userService;
     private UserDto userDto;
     private User user;
 
     @BeforeEach
     void initialize() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, itemRepository, itemSearchEngine, bookingRepository,
+                bookingIntervalIndex);
         userDto = UserDto.builder()
                 .id(1L)
                 .name("Paul")
@@ -41,7 +56,7 @@ class UserServiceUnitTest {
 
     @Test
     void saveTest() {
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
         var save = userService.save(userDto);
         assertEquals(save.getEmail(), user.getEmail());
@@ -51,7 +66,7 @@ class UserServiceUnitTest {
 
     @Test
     void saveUserSameEmailTest() {
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenThrow(EmailException.class);
         assertThrows(EmailException.class,
                 () -> userService.save(userDto));
@@ -63,7 +78,7 @@ class UserServiceUnitTest {
     void updateUserNameTest() {
         var userDto1 = new UserDto(1L, "Daniel", null);
         var userDto2 = new UserDto(1L, "Daniel", userDto.getEmail());
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
         userService.save(userDto);
         when(userRepository.save(any()))
@@ -82,7 +97,7 @@ class UserServiceUnitTest {
                 1L,
                 "Nagel",
                 "nagel@mail.com");
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
         userService.save(userDto);
         when(userRepository.save(any()))
@@ -107,7 +122,7 @@ class UserServiceUnitTest {
     void updateUserEmailTest() {
         var userDto1 = new UserDto(1L, null, "john@mail.com");
         var userDto2 = new UserDto(1L, userDto.getName(), "john@mail.com");
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
         userService.save(userDto);
         when(userRepository.save(any()))
@@ -136,7 +151,7 @@ class UserServiceUnitTest {
 
     @Test
     void deleteTest() {
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(user);
         var dto = userService.save(userDto);
         userService.delete(dto.getId());
@@ -144,6 +159,26 @@ class UserServiceUnitTest {
                 .deleteById(user.getId());
     }
 
+    @Test
+    void deleteRemovesCascadedItemsFromSearchTest() {
+        when(itemRepository.findIdsDeletedWithUser(1L))
+                .thenReturn(List.of(2L, 3L));
+        userService.delete(1L);
+        verify(itemSearchEngine).remove(2L);
+        verify(itemSearchEngine).remove(3L);
+    }
+
+    @Test
+    void deleteEvictsCascadedBookingIntervalsTest() {
+        when(itemRepository.findIdsDeletedWithUser(1L))
+                .thenReturn(List.of(2L));
+        when(bookingRepository.findItemIdsByBookerAndStatus(1L, APPROVED))
+                .thenReturn(List.of(4L));
+        userService.delete(1L);
+        verify(bookingIntervalIndex).evict(List.of(2L));
+        verify(bookingIntervalIndex).evict(List.of(4L));
+    }
+
 
     @Test
     void getAllEmptyTest() {
@@ -161,4 +196,17 @@ class UserServiceUnitTest {
         assertEquals(dtos.get(0).getId(), user.getId());
         assertEquals(dtos.size(), 1);
     }
+
+    @Test
+    void saveAllEmailTakenConcurrentlyTest() {
+        when(userRepository.findExistingEmails(anyList()))
+                .thenReturn(List.of());
+        when(userRepository.saveAllAndFlush(anyCollection()))
+                .thenThrow(DataIntegrityViolationException.class);
+        when(userRepository.findCommittedEmails(List.of("paul@mail.com", "mary@mail.com")))
+                .thenReturn(List.of("mary@mail.com"));
+        var e = assertThrows(EmailException.class,
+                () -> userService.saveAll(List.of(userDto, new UserDto(null, "Mary", "mary@mail.com"))));
+        assertEquals("Пользователи с email: mary@mail.com уже существуют.", e.getMessage());
+    }
 }
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Map;
+
+import static java.time.LocalDateTime.now;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.enums.BookingState.APPROVED;
+import static ru.practicum.shareit.utils.Cursor.NEXT_CURSOR_HEADER;
+
+/**
+ * Курсор, выданный одним эндпоинтом, принимается им же, а чужой, подделанный или битый курсор —
+ * ответ 400, а не ошибка сервера.
+ */
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class CursorControllerTest {
+    private static final String HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private final EntityManager entityManager;
+    private final MockMvc mvc;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void initialize() {
+        owner = new User(null, "Owner", "cursor-owner@mail.com");
+        booker = new User(null, "Booker", "cursor-booker@mail.com");
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        for (var i = 0; i < 2; i++) {
+            var item = new Item(null, "Item" + i, "Item" + i, true, owner, null, null, null);
+            entityManager.persist(item);
+            entityManager.persist(new Booking(null, now().plusDays(i + 1), now().plusDays(i + 2), item, booker, APPROVED, null));
+            entityManager.persist(new ItemRequest(null, "Need " + i, booker, now().minusDays(i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String firstPageCursor(String path, User user) throws Exception {
+        return mvc.perform(get(path).header(HEADER_SHARER_USER_ID, user.getId()).param("after", "").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, notNullValue()))
+                .andReturn()
+                .getResponse()
+                .getHeader(NEXT_CURSOR_HEADER);
+    }
+
+    private void assertRejected(String path, User user, String cursor) throws Exception {
+        mvc.perform(get(path).header(HEADER_SHARER_USER_ID, user.getId()).param("text", "item").param("after", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ownCursorIsAcceptedTest() throws Exception {
+        for (var path : new String[]{"/bookings", "/bookings/owner", "/items", "/requests/all"}) {
+            var user = path.equals("/bookings") ? booker : owner;
+            var cursor = firstPageCursor(path, user);
+            mvc.perform(get(path).header(HEADER_SHARER_USER_ID, user.getId()).param("after", cursor).param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+    }
+
+    @Test
+    void foreignCursorIsRejectedTest() throws Exception {
+        var bookingCursor = firstPageCursor("/bookings", booker);
+        var requestCursor = firstPageCursor("/requests/all", owner);
+        assertRejected("/items", owner, bookingCursor);
+        assertRejected("/items/search", owner, bookingCursor);
+        assertRejected("/requests/all", owner, bookingCursor);
+        assertRejected("/bookings/owner", owner, requestCursor);
+    }
+
+    @Test
+    void tamperedCursorIsRejectedTest() throws Exception {
+        assertRejected("/items/search", owner, Cursor.encode(ScrollPosition.forward(Map.of("rank", 1L, "id", 1L))));
+        assertRejected("/items/search", owner, Cursor.encode(ScrollPosition.forward(Map.of("id", 1L))));
+        assertRejected("/bookings", booker, Cursor.encode(ScrollPosition.forward(Map.of("start", 1.0, "id", 1L))));
+        assertRejected("/items", owner, "not a cursor");
+    }
+}
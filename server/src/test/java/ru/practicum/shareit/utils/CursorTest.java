@@ -0,0 +1,64 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+    private static final Map<String, Class<?>> KEYS =
+            Map.of("start", LocalDateTime.class, "rank", Double.class, "id", Long.class);
+    private static final Map<String, Class<?>> ID = Map.of("id", Long.class);
+
+    @Test
+    void shouldRoundTripKeys() {
+        var keys = new LinkedHashMap<String, Object>();
+        keys.put("start", LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000));
+        keys.put("rank", 0.0607927106320858);
+        keys.put("id", 42L);
+        var cursor = Cursor.encode(ScrollPosition.forward(keys));
+        assertThat(cursor, matchesPattern("[A-Za-z0-9_-]+"));
+        assertThat(Cursor.decode(cursor, KEYS).getKeys(), equalTo(keys));
+    }
+
+    @Test
+    void shouldStartFromBeginningOnEmptyCursor() {
+        assertThat(Cursor.decode("", ID).isInitial(), is(true));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(ValidationException.class, () -> Cursor.decode("not a cursor", ID));
+        assertThrows(ValidationException.class, () -> Cursor.decode(Cursor.encode(ScrollPosition.forward(Map.of("id", 1L))) + "x", ID));
+    }
+
+    @Test
+    void shouldRejectForeignKeys() {
+        var booking = Cursor.encode(ScrollPosition.forward(Map.of("start", LocalDateTime.now(), "id", 1L)));
+        assertThrows(ValidationException.class, () -> Cursor.decode(booking, ID));
+        assertThrows(ValidationException.class, () -> Cursor.decode(booking, KEYS));
+        var search = Cursor.encode(ScrollPosition.forward(Map.of("rank", 1L, "id", 1L)));
+        assertThrows(ValidationException.class, () -> Cursor.decode(search, Map.of("rank", Double.class, "id", Long.class)));
+        var duplicate = Base64.getUrlEncoder().encodeToString("id=L:1&id=L:2".getBytes(StandardCharsets.UTF_8));
+        assertThrows(ValidationException.class, () -> Cursor.decode(duplicate, ID));
+    }
+
+    @Test
+    void shouldTrimLookaheadRow() {
+        var window = Cursor.window(List.of(1L, 2L, 3L), Limit.of(2), id -> Map.of("id", id));
+        assertThat(window.getContent(), contains(1L, 2L));
+        assertThat(window.hasNext(), is(true));
+        assertThat(Cursor.window(List.of(1L), Limit.of(2), id -> Map.of("id", id)).hasNext(), is(false));
+    }
+}